@@ -10,14 +10,22 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exception.UnsupportedStatusException;
+import ru.practicum.shareit.booking.mapper.BookingCursorMapper;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.PagingHeaders;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -39,6 +47,23 @@ public class BookingController {
         return BookingMapper.toBookingDto(addedBooking);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(@RequestHeader("X-Sharer-User-Id") Integer bookerId,
+                                                   @RequestBody @NotEmpty List<@NotNull @Valid BookingDto> bookingDtos) {
+        List<Booking> bookings = bookingDtos.stream().map(BookingMapper::toBookingWithItemId).collect(Collectors.toList());
+        return bookingService.addBookings(bookings, bookerId).stream()
+                .map(BookingMapper::toBookingBatchResultDto)
+                .collect(Collectors.toList());
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
+                                            @RequestBody @Valid BookingApprovalDto bookingApprovalDto) {
+        List<Booking> bookings = bookingService.approveBookings(
+                bookingApprovalDto.getBookingIds(), ownerId, bookingApprovalDto.getApproved());
+        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Integer ownerId, @PathVariable("bookingId") Integer bookingId,
                                      @RequestParam("approved") Boolean isApproved) {
@@ -57,7 +82,9 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") Integer size
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String after,
+            HttpServletResponse response
     ) {
         State bookingState;
         try {
@@ -65,7 +92,9 @@ public class BookingController {
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStatusException();
         }
-        List<Booking> bookings = bookingService.getAllBookingsOfUserByState(ownerId, bookingState, from, size);
+        List<BookingView> bookings = bookingService.getBookingViewsOfUser(
+                ownerId, bookingState, BookingCursorMapper.toBookingCursor(after), from, size);
+        setNextCursor(response, bookings, size);
         return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
@@ -74,7 +103,9 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") Integer size
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String after,
+            HttpServletResponse response
     ) {
         State bookingState;
         try {
@@ -82,7 +113,15 @@ public class BookingController {
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStatusException();
         }
-        List<Booking> bookings = bookingService.getAllBookingsOfUserItems(ownerId, bookingState, from, size);
+        List<BookingView> bookings = bookingService.getBookingViewsOfUserItems(
+                ownerId, bookingState, BookingCursorMapper.toBookingCursor(after), from, size);
+        setNextCursor(response, bookings, size);
         return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
+
+    private void setNextCursor(HttpServletResponse response, List<BookingView> bookings, Integer size) {
+        if (bookings.size() == size) {
+            response.setHeader(PagingHeaders.NEXT_CURSOR, BookingCursorMapper.toToken(bookings.get(bookings.size() - 1)));
+        }
+    }
 }
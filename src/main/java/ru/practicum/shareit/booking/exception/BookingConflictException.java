@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.exception;
+
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException() {
+        super("Одна из вещей была забронирована параллельным запросом, повторите запрос!");
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.mapper;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class BookingCursorMapper {
+    private static final String SEPARATOR = "|";
+
+    public static String toToken(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return toToken(booking.getStart(), booking.getId());
+    }
+
+    public static String toToken(BookingView bookingView) {
+        if (bookingView == null) {
+            return null;
+        }
+        return toToken(bookingView.getStart(), bookingView.getId());
+    }
+
+    private static String toToken(LocalDateTime start, Integer id) {
+        String value = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor toBookingCursor(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new BookingCursor(
+                    LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Integer.valueOf(value.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор страницы!");
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package ru.practicum.shareit.booking.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 public class BookingMapper {
@@ -14,6 +20,16 @@ public class BookingMapper {
         }
     }
 
+    public static Booking toBookingWithItemId(BookingDto bookingDto) {
+        Booking booking = toBooking(bookingDto);
+        if (booking != null && bookingDto.getItemId() != null) {
+            Item item = new Item();
+            item.setId(bookingDto.getItemId());
+            booking.setItem(item);
+        }
+        return booking;
+    }
+
     public static BookingDto toBookingDto(Booking booking) {
         if (booking == null) {
             return null;
@@ -22,5 +38,29 @@ public class BookingMapper {
         }
     }
 
+    public static BookingDto toBookingDto(BookingView bookingView) {
+        if (bookingView == null) {
+            return null;
+        } else {
+            return new BookingDto(
+                    bookingView.getId(),
+                    bookingView.getStart(),
+                    bookingView.getEnd(),
+                    new ItemDto(bookingView.getItemId(), bookingView.getItemName(), bookingView.getItemDescription(),
+                            bookingView.getItemAvailable(), bookingView.getItemRequestId()),
+                    null,
+                    new UserDto(bookingView.getBookerId(), bookingView.getBookerName(), bookingView.getBookerEmail()),
+                    bookingView.getBookerId(),
+                    bookingView.getStatus()
+            );
+        }
+    }
 
+    public static BookingBatchResultDto toBookingBatchResultDto(BookingBatchResult result) {
+        if (result == null) {
+            return null;
+        } else {
+            return new BookingBatchResultDto(toBookingDto(result.getBooking()), result.getError());
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+/**
+ * Booking id with the id of its item's owner, enough to check access to a batch of bookings.
+ */
+@Value
+public class BookingOwner {
+    Integer id;
+    Integer ownerId;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fields of a booking shown as the last or next booking of an item, without the item itself.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSummary {
+    private Integer id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private Integer bookerId;
+    private String bookerName;
+    private String bookerEmail;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a booking page with the item and booker columns the response needs.
+ */
+@Value
+public class BookingView {
+    Integer id;
+    LocalDateTime start;
+    LocalDateTime end;
+    Integer itemId;
+    String itemName;
+    String itemDescription;
+    Boolean itemAvailable;
+    Integer itemRequestId;
+    Integer bookerId;
+    String bookerName;
+    String bookerEmail;
+    Status status;
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Per-item set of non-overlapping slots built from active bookings that end after the load time.
+ * A schedule is loaded on first access and updated once the transaction that saved a booking commits.
+ * The index is local to one instance: it only saves database round trips, the bookings_no_overlap
+ * constraint is what rules out double bookings made through different instances.
+ */
+@Component
+public class BookingAvailabilityIndex {
+    private static final List<Status> ACTIVE_BOOKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Integer, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Returns true only if [start, end) is known to be free; false has to be confirmed against the database.
+     */
+    public boolean isFree(int itemId, LocalDateTime start, LocalDateTime end) {
+        return getSchedule(itemId).isFree(start, end);
+    }
+
+    public void update(Booking booking) {
+        if (booking.getItem() == null || booking.getItem().getId() == null) {
+            return;
+        }
+        int itemId = booking.getItem().getId();
+        BookingInterval interval = new BookingInterval(booking.getId(), itemId, booking.getStart(), booking.getEnd());
+        boolean active = ACTIVE_BOOKING_STATUSES.contains(booking.getStatus());
+        afterCommit(() -> {
+            ItemSchedule schedule = schedules.get(itemId);
+            if (schedule != null) {
+                schedule.apply(interval, active);
+            }
+        });
+    }
+
+    public void evict(int itemId) {
+        schedules.remove(itemId);
+    }
+
+    /**
+     * Installs an empty schedule before querying, so updates committed during the load are queued on it
+     * and replayed afterwards instead of being lost.
+     */
+    private ItemSchedule getSchedule(int itemId) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule != null) {
+            return schedule;
+        }
+        LocalDateTime horizon = LocalDateTime.now();
+        ItemSchedule created = new ItemSchedule(horizon);
+        schedule = schedules.putIfAbsent(itemId, created);
+        if (schedule != null) {
+            return schedule;
+        }
+        try {
+            created.load(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(itemId, horizon, ACTIVE_BOOKING_STATUSES));
+        } catch (RuntimeException e) {
+            schedules.remove(itemId, created);
+            throw e;
+        }
+        return created;
+    }
+
+    private static class ItemSchedule {
+        private LocalDateTime horizon;
+        private final NavigableMap<LocalDateTime, Slot> slots = new TreeMap<>();
+        private final Map<Integer, BookingInterval> intervals = new HashMap<>();
+        private List<PendingChange> pendingChanges = new ArrayList<>();
+
+        ItemSchedule(LocalDateTime horizon) {
+            this.horizon = horizon;
+        }
+
+        synchronized void load(List<BookingInterval> loaded) {
+            loaded.forEach(this::add);
+            pendingChanges.forEach(change -> change(change.interval, change.active));
+            pendingChanges = null;
+        }
+
+        synchronized void apply(BookingInterval interval, boolean active) {
+            if (pendingChanges != null) {
+                pendingChanges.add(new PendingChange(interval, active));
+            } else {
+                change(interval, active);
+            }
+        }
+
+        /**
+         * A schedule that is still loading knows nothing, so every interval has to be confirmed.
+         */
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            if (pendingChanges != null) {
+                return false;
+            }
+            evictFinished(LocalDateTime.now());
+            if (start.isBefore(horizon)) {
+                return false;
+            }
+            Map.Entry<LocalDateTime, Slot> candidate = slots.lowerEntry(end);
+            return candidate == null || !candidate.getValue().end.isAfter(start);
+        }
+
+        private void change(BookingInterval interval, boolean active) {
+            remove(interval.getId());
+            if (active) {
+                add(interval);
+            }
+        }
+
+        synchronized void add(BookingInterval interval) {
+            if (!interval.getEnd().isAfter(horizon)) {
+                return;
+            }
+            intervals.put(interval.getId(), interval);
+            Slot merged = new Slot(interval.getStart(), interval.getEnd());
+            merged.members.add(interval);
+            Map.Entry<LocalDateTime, Slot> overlapping = slots.lowerEntry(merged.end);
+            while (overlapping != null && overlapping.getValue().end.isAfter(merged.start)) {
+                Slot slot = slots.remove(overlapping.getKey());
+                merged.members.addAll(slot.members);
+                if (slot.start.isBefore(merged.start)) {
+                    merged.start = slot.start;
+                }
+                if (slot.end.isAfter(merged.end)) {
+                    merged.end = slot.end;
+                }
+                overlapping = slots.lowerEntry(slot.start);
+            }
+            slots.put(merged.start, merged);
+        }
+
+        synchronized void remove(Integer bookingId) {
+            BookingInterval interval = intervals.remove(bookingId);
+            if (interval == null) {
+                return;
+            }
+            Map.Entry<LocalDateTime, Slot> owner = slots.floorEntry(interval.getStart());
+            if (owner == null) {
+                return;
+            }
+            Slot slot = slots.remove(owner.getKey());
+            slot.members.remove(interval);
+            slot.members.sort(Comparator.comparing(BookingInterval::getStart));
+            slot.members.forEach(member -> intervals.remove(member.getId()));
+            slot.members.forEach(this::add);
+        }
+
+        private void evictFinished(LocalDateTime now) {
+            Map.Entry<LocalDateTime, Slot> first = slots.firstEntry();
+            while (first != null && !first.getValue().end.isAfter(now)) {
+                slots.remove(first.getKey());
+                first.getValue().members.forEach(member -> intervals.remove(member.getId()));
+                first = slots.firstEntry();
+            }
+            if (now.isAfter(horizon)) {
+                horizon = now;
+            }
+        }
+    }
+
+    private static class PendingChange {
+        private final BookingInterval interval;
+        private final boolean active;
+
+        PendingChange(BookingInterval interval, boolean active) {
+            this.interval = interval;
+            this.active = active;
+        }
+    }
+
+    private static class Slot {
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private final List<BookingInterval> members = new ArrayList<>();
+
+        Slot(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+    /**
+     * Inserts the bookings with a single JDBC batch and sets the generated ids on them.
+     */
+    List<Booking> insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Booking> insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Booking>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    statement.setObject(1, booking.getStart());
+                    statement.setObject(2, booking.getEnd());
+                    statement.setInt(3, booking.getItem().getId());
+                    statement.setInt(4, booking.getBooker().getId());
+                    statement.setString(5, booking.getStatus().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        keys.next();
+                        booking.setId(keys.getInt(1));
+                    }
+                }
+            }
+            return bookings;
+        });
+    }
+}
@@ -1,82 +1,132 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingOwner;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Integer bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable
-    );
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Integer bookerId, LocalDateTime start, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
-            Integer bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable
-    );
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingSeekRepository, BookingBatchRepository {
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Integer bookerId, Status bookingStatus, Pageable pageable);
+    @Override
+    @EntityGraph(Booking.DETAIL_GRAPH)
+    Optional<Booking> findById(Integer id);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Integer bookerId, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.end > ?2 " +
+            "AND b.status IN (?3) " +
+            "ORDER BY b.start"
+    )
+    List<BookingInterval> findIntervalsByItemIdAndEndIsAfterAndStatusIn(int itemId, LocalDateTime end, List<Status> statuses);
 
-    List<Booking> findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-            List<Integer> itemIds, LocalDateTime start, LocalDateTime end, Pageable pageable
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN (?1) " +
+            "AND b.start < ?2 " +
+            "AND b.end > ?3 " +
+            "AND b.status IN (?4) " +
+            "ORDER BY b.item.id, b.start"
+    )
+    List<BookingInterval> findIntervalsByItemIdInAndStartIsBeforeAndEndIsAfterAndStatusIn(
+            Collection<Integer> itemIds, LocalDateTime start, LocalDateTime end, List<Status> statuses
     );
 
-    List<Booking> findAllByItemIdInAndStartAfterOrderByStartDesc(List<Integer> itemIds, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-            List<Integer> itemIds, LocalDateTime start, LocalDateTime end, Pageable pageable
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.start < ?2 " +
+            "AND b.end > ?3 " +
+            "AND b.status IN (?4) " +
+            "ORDER BY b.start"
+    )
+    Stream<BookingInterval> streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(
+            int itemId, LocalDateTime start, LocalDateTime end, List<Status> statuses
     );
 
-    List<Booking> findAllByItemIdInAndStatusOrderByStartDesc(List<Integer> itemIds, Status bookingStatus, Pageable pageable);
-
-    List<Booking> findAllByItemIdInOrderByStartDesc(List<Integer> itemIds, Pageable pageable);
+    boolean existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(int itemId, LocalDateTime end, LocalDateTime start, List<Status> statuses);
 
+    /**
+     * Latest booking per item that started before the given moment: at most one row per item.
+     */
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = ?1 " +
-            "AND (b.start BETWEEN ?2 AND ?3 " +
-            "OR b.end BETWEEN  ?2 AND ?3) " +
-            "ORDER BY b.start desc"
-    )
-    List<Booking> findAllByItemIdAndStartBetweenAndEndBetween(int itemId, LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT new ru.practicum.shareit.booking.model.Booking(" +
-            "b.id, MAX(b.start), b.end, b.item, b.booker, b.status) " +
-            "FROM Booking b " +
             "WHERE b.item.id IN (?1) " +
             "AND b.item.owner.id = ?2 " +
-            "AND b.start < ?3 " +
             "AND b.status NOT IN (?4) " +
-            "GROUP BY b.id " +
-            "ORDER BY b.item.id, MAX(b.start) DESC"
+            "AND b.start = (" +
+            "SELECT MAX(l.start) FROM Booking l " +
+            "WHERE l.item = b.item " +
+            "AND l.start < ?3 " +
+            "AND l.status NOT IN (?4))"
     )
+    @EntityGraph(Booking.LIST_GRAPH)
     List<Booking> findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
             List<Integer> itemIds, int ownerId, LocalDateTime start, List<Status> statuses
     );
 
-    @Query("SELECT new ru.practicum.shareit.booking.model.Booking(" +
-            "b.id, MIN(b.start), b.end, b.item, b.booker, b.status) " +
-            "FROM Booking b " +
+    /**
+     * Earliest booking per item that starts at or after the given moment: at most one row per item.
+     */
+    @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id IN (?1) " +
             "AND b.item.owner.id = ?2 " +
-            "AND b.start >= ?3 " +
             "AND b.status NOT IN (?4) " +
-            "GROUP BY b.id " +
-            "ORDER BY b.item.id, MIN(b.start)"
+            "AND b.start = (" +
+            "SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item = b.item " +
+            "AND n.start >= ?3 " +
+            "AND n.status NOT IN (?4))"
     )
+    @EntityGraph(Booking.LIST_GRAPH)
     List<Booking> findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
             List<Integer> itemIds, int ownerId, LocalDateTime start, List<Status> statuses
     );
 
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingOwner(b.id, b.item.owner.id) FROM Booking b " +
+            "WHERE b.id IN (?1) " +
+            "ORDER BY b.id")
+    List<BookingOwner> findOwnersByIdIn(Collection<Integer> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.id IN (?1) " +
+            "AND b.status = ?2 " +
+            "ORDER BY b.id")
+    List<Integer> findIdsByIdInAndStatusForUpdate(Collection<Integer> ids, Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?3 " +
+            "WHERE b.id IN (?1) " +
+            "AND b.status = ?2")
+    int updateStatusByIdInAndStatus(Collection<Integer> ids, Status currentStatus, Status newStatus);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH i.owner " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN (?1) " +
+            "AND b.status = ?2 " +
+            "ORDER BY b.id")
+    List<Booking> findAllByIdInAndStatus(Collection<Integer> ids, Status status);
+
     Optional<Booking> findFirstByItemIdAndBookerIdAndEndIsBefore(int itemId, int bookerId, LocalDateTime end);
 }
\ No newline at end of file
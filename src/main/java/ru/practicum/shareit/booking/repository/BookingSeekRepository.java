@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset pagination over bookings ordered by (start, id) descending: a page starts right after the cursor
+ * instead of skipping an OFFSET, so deep pages cost the same as the first one.
+ */
+public interface BookingSeekRepository {
+    /**
+     * Booker's page read as projections; {@code offset} is only applied without a cursor.
+     */
+    List<BookingView> findViewPageByBookerId(int bookerId, State state, LocalDateTime now, BookingCursor after, int offset, int size);
+
+    List<BookingView> findViewPageByItemOwnerId(int ownerId, State state, LocalDateTime now, BookingCursor after, int offset, int size);
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingSeekRepositoryImpl implements BookingSeekRepository {
+    private final EntityManager entityManager;
+
+    public BookingSeekRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    private static final String VIEW_SELECT = "SELECT new ru.practicum.shareit.booking.model.BookingView(" +
+            "b.id, b.start, b.end, i.id, i.name, i.description, i.available, i.requestId, " +
+            "u.id, u.name, u.email, b.status) ";
+
+    @Override
+    public List<BookingView> findViewPageByBookerId(int bookerId, State state, LocalDateTime now, BookingCursor after, int offset, int size) {
+        return createPageQuery(BookingView.class, VIEW_SELECT + "FROM Booking b JOIN b.item i JOIN b.booker u " +
+                "WHERE b.booker.id = :userId", bookerId, state, now, after)
+                .setFirstResult(after == null ? offset : 0)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingView> findViewPageByItemOwnerId(int ownerId, State state, LocalDateTime now, BookingCursor after, int offset, int size) {
+        return createPageQuery(BookingView.class, VIEW_SELECT + "FROM Booking b JOIN b.item i JOIN b.booker u " +
+                "WHERE i.owner.id = :userId", ownerId, state, now, after)
+                .setFirstResult(after == null ? offset : 0)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> createPageQuery(Class<T> type, String selectWhere, int userId, State state, LocalDateTime now,
+                                              BookingCursor after) {
+        StringBuilder jpql = new StringBuilder(selectWhere);
+        switch (state) {
+            case CURRENT:
+                jpql.append(" AND b.start < :now AND b.end > :now");
+                break;
+            case FUTURE:
+                jpql.append(" AND b.start > :now");
+                break;
+            case PAST:
+                jpql.append(" AND b.start < :now AND b.end < :now");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append(" AND b.status = :status");
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            jpql.append(" AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))");
+        }
+        jpql.append(" ORDER BY b.start DESC, b.id DESC");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type)
+                .setParameter("userId", userId);
+        switch (state) {
+            case CURRENT:
+            case FUTURE:
+            case PAST:
+                query.setParameter("now", now);
+                break;
+            case WAITING:
+                query.setParameter("status", Status.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter("status", Status.REJECTED);
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            query.setParameter("afterStart", after.getStart())
+                    .setParameter("afterId", after.getId());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,243 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPointers;
+import ru.practicum.shareit.booking.model.BookingSummary;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Per-item summaries of the last and next booking, loaded on first access and kept up to date as bookings
+ * are saved, so cached pointers are served without a database round trip. The item is taken from the caller,
+ * and a booker's update evicts the pointers showing them, so item and booker changes show up at once.
+ * A pointer whose next booking has already started, or that is older than the time to live, is reloaded.
+ * A loaded pointer is not installed if a booking of its item or a booker changed during the load, and nothing
+ * is cached once the map holds {@code maxEntries} items, until the sweep drops expired ones.
+ */
+@Component
+public class ItemBookingPointers {
+    private static final List<Status> NEGATIVE_BOOKING_STATUSES = List.of(Status.CANCELED, Status.REJECTED);
+    private static final int VERSION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong bookerVersion = new AtomicLong();
+
+    public ItemBookingPointers(BookingRepository bookingRepository,
+                               @Value("${shareit.booking.pointers.ttl-ms:300000}") long ttlMs,
+                               @Value("${shareit.booking.pointers.max-entries:10000}") int maxEntries) {
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns pointers for every given item of the owner; items without bookings map to empty pointers.
+     */
+    public Map<Integer, BookingPointers> get(Collection<Item> items, int ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        long nanoNow = System.nanoTime();
+        Map<Integer, Entry> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Item item : items) {
+            Entry entry = entries.get(item.getId());
+            if (entry == null || entry.ownerId != ownerId || entry.isStale(now, nanoNow, ttlNanos)) {
+                missing.add(item.getId());
+            } else {
+                found.put(item.getId(), entry);
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.putAll(loadAndInstall(missing, ownerId, now));
+        }
+        Map<Integer, BookingPointers> pointers = new HashMap<>();
+        for (Item item : items) {
+            Entry entry = found.get(item.getId());
+            pointers.put(item.getId(), new BookingPointers(toBooking(entry.last, item), toBooking(entry.next, item)));
+        }
+        return pointers;
+    }
+
+    public BookingPointers get(Item item, int ownerId) {
+        return get(List.of(item), ownerId).get(item.getId());
+    }
+
+    public void update(Booking booking) {
+        if (booking.getItem() == null || booking.getItem().getId() == null) {
+            return;
+        }
+        int itemId = booking.getItem().getId();
+        BookingSummary summary = toSummary(booking);
+        afterCommit(() -> {
+            versions.incrementAndGet(stripe(itemId));
+            entries.computeIfPresent(itemId, (id, entry) -> entry.apply(summary, LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Drops the pointers showing the booker once the transaction that changed them commits.
+     */
+    public void evictBooker(int bookerId) {
+        afterCommit(() -> {
+            bookerVersion.incrementAndGet();
+            entries.forEach((itemId, entry) -> {
+                if (entry.hasBooker(bookerId)) {
+                    evict(itemId);
+                }
+            });
+        });
+    }
+
+    public void evict(int itemId) {
+        versions.incrementAndGet(stripe(itemId));
+        entries.remove(itemId);
+    }
+
+    /**
+     * Drops expired pointers and reloads those whose next booking has started, one query pair per owner.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.pointers.sweep-delay-ms:60000}",
+            initialDelayString = "${shareit.booking.pointers.sweep-delay-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long nanoNow = System.nanoTime();
+        entries.forEach((itemId, entry) -> {
+            if (entry.isExpired(nanoNow, ttlNanos)) {
+                entries.remove(itemId, entry);
+            }
+        });
+        Map<Integer, List<Integer>> staleByOwnerId = entries.entrySet().stream()
+                .filter(e -> e.getValue().isStale(now, nanoNow, ttlNanos))
+                .collect(Collectors.groupingBy(e -> e.getValue().ownerId,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        staleByOwnerId.forEach((ownerId, itemIds) -> loadAndInstall(itemIds, ownerId, now));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads the pointers and caches each one unless a booking of its item or a booker changed after the load
+     * started. A booking committed earlier is seen by the load, a later one either bumps the version first or is
+     * applied to the installed entry, since both go through the map's per-key lock.
+     */
+    private Map<Integer, Entry> loadAndInstall(List<Integer> itemIds, int ownerId, LocalDateTime now) {
+        Map<Integer, Long> versionsBefore = new HashMap<>();
+        itemIds.forEach(itemId -> versionsBefore.put(itemId, versions.get(stripe(itemId))));
+        long bookerVersionBefore = bookerVersion.get();
+        Map<Integer, Entry> loaded = load(itemIds, ownerId, now);
+        loaded.forEach((itemId, entry) -> entries.compute(itemId, (id, current) -> {
+            if (versions.get(stripe(itemId)) != versionsBefore.get(itemId) || bookerVersion.get() != bookerVersionBefore) {
+                return current;
+            }
+            return current == null && entries.size() >= maxEntries ? null : entry;
+        }));
+        return loaded;
+    }
+
+    private Map<Integer, Entry> load(List<Integer> itemIds, int ownerId, LocalDateTime now) {
+        Map<Integer, BookingSummary> last = bookingRepository
+                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(itemIds, ownerId, now, NEGATIVE_BOOKING_STATUSES)
+                .stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), ItemBookingPointers::toSummary, (first, second) -> first));
+        Map<Integer, BookingSummary> next = bookingRepository
+                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(itemIds, ownerId, now, NEGATIVE_BOOKING_STATUSES)
+                .stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), ItemBookingPointers::toSummary, (first, second) -> first));
+        long loadedAt = System.nanoTime();
+        Map<Integer, Entry> loaded = new HashMap<>();
+        for (Integer itemId : itemIds) {
+            loaded.put(itemId, new Entry(ownerId, last.get(itemId), next.get(itemId), loadedAt));
+        }
+        return loaded;
+    }
+
+    private static BookingSummary toSummary(Booking booking) {
+        User booker = booking.getBooker();
+        return new BookingSummary(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booker == null ? null : booker.getId(),
+                booker == null ? null : booker.getName(),
+                booker == null ? null : booker.getEmail());
+    }
+
+    private static Booking toBooking(BookingSummary summary, Item item) {
+        if (summary == null) {
+            return null;
+        }
+        return new Booking(summary.getId(), summary.getStart(), summary.getEnd(), item,
+                new User(summary.getBookerId(), summary.getBookerName(), summary.getBookerEmail()), summary.getStatus());
+    }
+
+    private static int stripe(int itemId) {
+        return Math.floorMod(itemId, VERSION_STRIPES);
+    }
+
+    private static class Entry {
+        private final int ownerId;
+        private final BookingSummary last;
+        private final BookingSummary next;
+        private final long loadedAt;
+
+        Entry(int ownerId, BookingSummary last, BookingSummary next, long loadedAt) {
+            this.ownerId = ownerId;
+            this.last = last;
+            this.next = next;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(long nanoNow, long ttlNanos) {
+            return nanoNow - loadedAt > ttlNanos;
+        }
+
+        boolean isStale(LocalDateTime now, long nanoNow, long ttlNanos) {
+            return next != null && !next.getStart().isAfter(now) || isExpired(nanoNow, ttlNanos);
+        }
+
+        boolean hasBooker(int bookerId) {
+            return last != null && Objects.equals(last.getBookerId(), bookerId)
+                    || next != null && Objects.equals(next.getBookerId(), bookerId);
+        }
+
+        /**
+         * Returns the entry with the booking applied, or null when the item has to be reloaded.
+         */
+        Entry apply(BookingSummary booking, LocalDateTime now) {
+            boolean isLast = last != null && Objects.equals(last.getId(), booking.getId());
+            boolean isNext = next != null && Objects.equals(next.getId(), booking.getId());
+            if (NEGATIVE_BOOKING_STATUSES.contains(booking.getStatus())) {
+                return isLast || isNext ? null : this;
+            }
+            if (booking.getStart().isBefore(now)) {
+                if (isLast || last == null || booking.getStart().isAfter(last.getStart())) {
+                    return new Entry(ownerId, booking, next, loadedAt);
+                }
+            } else if (isNext || next == null || booking.getStart().isBefore(next.getStart())) {
+                return new Entry(ownerId, last, booking, loadedAt);
+            }
+            return this;
+        }
+    }
+}
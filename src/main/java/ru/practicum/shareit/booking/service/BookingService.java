@@ -1,24 +1,47 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.InvalidBookingStatusException;
 import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
 import ru.practicum.shareit.booking.exception.UserNotOwnerOrCreator;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
     Booking addBooking(Booking booking, Integer itemId, Integer bookerId) throws ItemNotFoundException, UserNotFoundException, ItemNotAvailableException;
 
+    /**
+     * Validates every entry on its own; if another transaction books one of the items meanwhile,
+     * the whole batch is rolled back with {@link BookingConflictException}.
+     */
+    List<BookingBatchResult> addBookings(List<Booking> bookings, Integer bookerId) throws UserNotFoundException, BookingConflictException;
+
     Booking approveBooking(Integer bookingId, Integer ownerId, Boolean isApproved) throws BookingNotFoundException, UserNotOwnerOrCreator, InvalidBookingStatusException;
 
+    /**
+     * Locks the bookings still waiting for approval and changes only them; bookings already decided are skipped.
+     * Unknown ids are reported before ownership is checked.
+     */
+    List<Booking> approveBookings(Collection<Integer> bookingIds, Integer ownerId, Boolean isApproved)
+            throws BookingNotFoundException, UserNotOwnerOrCreator;
+
     Booking getBooking(Integer bookingId, Integer userId) throws BookingNotFoundException, UserNotOwnerOrCreator;
 
-    List<Booking> getAllBookingsOfUserByState(Integer bookerId, State state, Integer from, Integer size) throws BookingNotFoundException;
+    /**
+     * Booker's page as read-only projections: continues after the cursor if given, otherwise skips {@code from} rows.
+     */
+    List<BookingView> getBookingViewsOfUser(Integer bookerId, State state, BookingCursor after, Integer from, Integer size)
+            throws BookingNotFoundException;
 
-    List<Booking> getAllBookingsOfUserItems(Integer ownerId, State state, Integer from, Integer size) throws BookingNotFoundException;
+    List<BookingView> getBookingViewsOfUserItems(Integer ownerId, State state, BookingCursor after, Integer from, Integer size)
+            throws BookingNotFoundException;
 }
@@ -1,17 +1,27 @@
 package ru.practicum.shareit.booking.service;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.InvalidBookingStatusException;
 import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
 import ru.practicum.shareit.booking.exception.OwnerCantBookingItems;
 import ru.practicum.shareit.booking.exception.UserNotOwnerOrCreator;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingOwner;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
+import ru.practicum.shareit.event.model.UserEvent;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -20,9 +30,19 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,11 +51,32 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final ItemReservationLocks itemReservationLocks;
+    private final ItemBookingPointers itemBookingPointers;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookingServiceImpl(ItemRepository itemRepository, UserRepository userRepository, BookingRepository bookingRepository) {
+    private static final List<Status> ACTIVE_BOOKING_STATUSES =
+            List.of(Status.WAITING, Status.APPROVED);
+
+    private static final String NO_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    /**
+     * exclusion_violation on PostgreSQL, CHECK_CONSTRAINT_VIOLATED on H2.
+     */
+    private static final Set<String> OVERLAP_SQL_STATES = Set.of("23P01", "23513");
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    public BookingServiceImpl(ItemRepository itemRepository, UserRepository userRepository, BookingRepository bookingRepository,
+                              BookingAvailabilityIndex bookingAvailabilityIndex, ItemReservationLocks itemReservationLocks,
+                              ItemBookingPointers itemBookingPointers, ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.itemReservationLocks = itemReservationLocks;
+        this.itemBookingPointers = itemBookingPointers;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -55,15 +96,107 @@ public class BookingServiceImpl implements BookingService {
             throw new OwnerCantBookingItems();
         }
         User booker = userRepository.findById(bookerId).orElseThrow(() -> new UserNotFoundException(bookerId));
-        List<Booking> alreadyAddedBookings = bookingRepository
-                .findAllByItemIdAndStartBetweenAndEndBetween(item.getId(), booking.getStart(), booking.getEnd());
-        if (!alreadyAddedBookings.isEmpty()) {
-            throw new ItemNotAvailableException(itemId);
+        try (ItemReservationLocks.Reservation ignored = itemReservationLocks.reserve(item.getId())) {
+            if (!bookingAvailabilityIndex.isFree(item.getId(), booking.getStart(), booking.getEnd())) {
+                if (bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                        item.getId(), booking.getEnd(), booking.getStart(), ACTIVE_BOOKING_STATUSES)) {
+                    throw new ItemNotAvailableException(itemId);
+                }
+                bookingAvailabilityIndex.evict(item.getId());
+            }
+            booking.setBooker(booker);
+            booking.setItem(item);
+            booking.setStatus(Status.WAITING);
+            Booking savedBooking;
+            try {
+                savedBooking = bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                if (!isOverlapViolation(e)) {
+                    throw e;
+                }
+                bookingAvailabilityIndex.evict(item.getId());
+                throw new ItemNotAvailableException(itemId);
+            }
+            bookingAvailabilityIndex.update(savedBooking);
+            itemBookingPointers.update(savedBooking);
+            eventPublisher.publishEvent(UserEvent.bookingCreated(item.getOwner().getId(), savedBooking.getId(), item.getId()));
+            return savedBooking;
         }
-        booking.setBooker(booker);
-        booking.setItem(item);
-        booking.setStatus(Status.WAITING);
-        return bookingRepository.save(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> addBookings(List<Booking> bookings, Integer bookerId) throws UserNotFoundException {
+        if (bookings.isEmpty() || bookings.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Количество бронирований в запросе должно быть от 1 до " + MAX_BATCH_SIZE + "!");
+        }
+        User booker = userRepository.findById(bookerId).orElseThrow(() -> new UserNotFoundException(bookerId));
+        Set<Integer> requestedItemIds = bookings.stream()
+                .map(Booking::getItem)
+                .filter(Objects::nonNull)
+                .map(Item::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemRepository.findAllWithOwnerByIdIn(requestedItemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResult[] results = new BookingBatchResult[bookings.size()];
+        Map<Integer, List<Integer>> candidatesByItemId = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookings.size(); i++) {
+            String error = validateBatchBooking(bookings.get(i), items, bookerId, now);
+            if (error != null) {
+                results[i] = new BookingBatchResult(null, error);
+            } else {
+                candidatesByItemId.computeIfAbsent(bookings.get(i).getItem().getId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!candidatesByItemId.isEmpty()) {
+            try (ItemReservationLocks.Reservation ignored = itemReservationLocks.reserve(candidatesByItemId.keySet())) {
+                LocalDateTime windowStart = candidatesByItemId.values().stream().flatMap(List::stream)
+                        .map(i -> bookings.get(i).getStart()).min(Comparator.naturalOrder()).orElseThrow();
+                LocalDateTime windowEnd = candidatesByItemId.values().stream().flatMap(List::stream)
+                        .map(i -> bookings.get(i).getEnd()).max(Comparator.naturalOrder()).orElseThrow();
+                Map<Integer, List<BookingInterval>> existingByItemId = bookingRepository
+                        .findIntervalsByItemIdInAndStartIsBeforeAndEndIsAfterAndStatusIn(
+                                candidatesByItemId.keySet(), windowEnd, windowStart, ACTIVE_BOOKING_STATUSES)
+                        .stream()
+                        .collect(Collectors.groupingBy(BookingInterval::getItemId));
+
+                List<Booking> accepted = new ArrayList<>();
+                candidatesByItemId.forEach((itemId, candidates) -> {
+                    List<BookingInterval> existing = existingByItemId.getOrDefault(itemId, List.of());
+                    for (int i : sweepNonOverlapping(candidates, bookings, existing)) {
+                        Booking booking = bookings.get(i);
+                        booking.setItem(items.get(itemId));
+                        booking.setBooker(booker);
+                        booking.setStatus(Status.WAITING);
+                        accepted.add(booking);
+                        results[i] = new BookingBatchResult(booking, null);
+                    }
+                    for (int i : candidates) {
+                        if (results[i] == null) {
+                            results[i] = new BookingBatchResult(null,
+                                    "Вещь с id=" + itemId + " уже забронирована на это время!");
+                        }
+                    }
+                });
+                try {
+                    bookingRepository.insertAll(accepted);
+                } catch (DataIntegrityViolationException e) {
+                    if (!isOverlapViolation(e)) {
+                        throw e;
+                    }
+                    candidatesByItemId.keySet().forEach(bookingAvailabilityIndex::evict);
+                    throw new BookingConflictException();
+                }
+                accepted.forEach(bookingAvailabilityIndex::update);
+                accepted.forEach(itemBookingPointers::update);
+                accepted.forEach(booking -> eventPublisher.publishEvent(UserEvent.bookingCreated(
+                        booking.getItem().getOwner().getId(), booking.getId(), booking.getItem().getId())));
+            }
+        }
+        return Arrays.asList(results);
     }
 
     @Override
@@ -84,7 +217,40 @@ public class BookingServiceImpl implements BookingService {
             status = Status.REJECTED;
         }
         booking.setStatus(status);
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingAvailabilityIndex.update(savedBooking);
+        itemBookingPointers.update(savedBooking);
+        eventPublisher.publishEvent(UserEvent.bookingStatusChanged(
+                savedBooking.getBooker().getId(), savedBooking.getId(), savedBooking.getItem().getId(), status));
+        return savedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<Booking> approveBookings(Collection<Integer> bookingIds, Integer ownerId, Boolean isApproved)
+            throws BookingNotFoundException, UserNotOwnerOrCreator {
+        Set<Integer> ids = new HashSet<>(bookingIds);
+        Map<Integer, Integer> ownerIds = bookingRepository.findOwnersByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingOwner::getId, BookingOwner::getOwnerId));
+        Integer missingId = ids.stream().filter(id -> !ownerIds.containsKey(id)).min(Comparator.naturalOrder()).orElse(null);
+        if (missingId != null) {
+            throw new BookingNotFoundException(missingId);
+        }
+        if (ownerIds.values().stream().anyMatch(id -> !Objects.equals(id, ownerId))) {
+            throw new UserNotOwnerOrCreator();
+        }
+        Status status = isApproved ? Status.APPROVED : Status.REJECTED;
+        List<Integer> waitingIds = bookingRepository.findIdsByIdInAndStatusForUpdate(ids, Status.WAITING);
+        if (waitingIds.isEmpty()) {
+            return List.of();
+        }
+        bookingRepository.updateStatusByIdInAndStatus(waitingIds, Status.WAITING, status);
+        List<Booking> bookings = bookingRepository.findAllByIdInAndStatus(waitingIds, status);
+        bookings.forEach(bookingAvailabilityIndex::update);
+        bookings.forEach(itemBookingPointers::update);
+        bookings.forEach(booking -> eventPublisher.publishEvent(UserEvent.bookingStatusChanged(
+                booking.getBooker().getId(), booking.getId(), booking.getItem().getId(), status)));
+        return bookings;
     }
 
     @Override
@@ -97,80 +263,101 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getAllBookingsOfUserByState(Integer bookerId, State state, Integer from, Integer size) {
+    public List<BookingView> getBookingViewsOfUser(Integer bookerId, State state, BookingCursor after, Integer from, Integer size)
+            throws BookingNotFoundException {
         if (size <= 0) {
             throw new IllegalArgumentException("Размер должен быть больше нуля!");
         }
-        List<Booking> allBookings;
-        LocalDateTime currentLocalDateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (state) {
-            case CURRENT:
-                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerId, currentLocalDateTime, currentLocalDateTime, pageable);
-                break;
-            case FUTURE:
-                allBookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                        bookerId, currentLocalDateTime, pageable);
-                break;
-            case PAST:
-                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
-                        bookerId, currentLocalDateTime, currentLocalDateTime, pageable);
-                break;
-            case WAITING:
-                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                        bookerId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                        bookerId, Status.REJECTED, pageable);
-                break;
-            default:
-                allBookings = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable);
-        }
-        if (allBookings.isEmpty()) {
+        List<BookingView> bookings = bookingRepository.findViewPageByBookerId(
+                bookerId, state, LocalDateTime.now(), after, from / size * size, size);
+        if (after == null && bookings.isEmpty()) {
             throw new BookingNotFoundException();
         }
-        return allBookings;
+        return bookings;
     }
 
     @Override
-    public List<Booking> getAllBookingsOfUserItems(Integer ownerId, State state, Integer from, Integer size) throws BookingNotFoundException {
+    public List<BookingView> getBookingViewsOfUserItems(Integer ownerId, State state, BookingCursor after, Integer from, Integer size)
+            throws BookingNotFoundException {
         if (size <= 0) {
             throw new IllegalArgumentException("Размер должен быть больше нуля!");
         }
-        List<Booking> allBookings;
-        LocalDateTime currentLocalDateTime = LocalDateTime.now();
-        List<Integer> itemIds = itemRepository.findByOwnerId(ownerId, Pageable.unpaged())
-                .stream().map(Item::getId).collect(Collectors.toList());
-        if (itemIds.isEmpty()) {
+        List<BookingView> bookings = bookingRepository.findViewPageByItemOwnerId(
+                ownerId, state, LocalDateTime.now(), after, from / size * size, size);
+        if (after == null && bookings.isEmpty() && !itemRepository.existsByOwnerId(ownerId)) {
             throw new BookingNotFoundException();
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (state) {
-            case CURRENT:
-                allBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-                        itemIds, currentLocalDateTime, currentLocalDateTime, pageable);
-                break;
-            case FUTURE:
-                allBookings = bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(
-                        itemIds, currentLocalDateTime, pageable);
-                break;
-            case PAST:
-                allBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-                        itemIds, currentLocalDateTime, currentLocalDateTime, pageable);
-                break;
-            case WAITING:
-                allBookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                        itemIds, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                allBookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                        itemIds, Status.REJECTED, pageable);
-                break;
-            default:
-                allBookings = bookingRepository.findAllByItemIdInOrderByStartDesc(itemIds, pageable);
-        }
-        return allBookings;
+        return bookings;
+    }
+
+    private String validateBatchBooking(Booking booking, Map<Integer, Item> items, Integer bookerId, LocalDateTime now) {
+        if (booking.getStart() == null || booking.getEnd() == null || !booking.getStart().isBefore(booking.getEnd())) {
+            return "Некорректное время начала/окончания бронирования!";
+        }
+        if (booking.getStart().isBefore(now)) {
+            return "Время начала бронирования уже прошло!";
+        }
+        if (booking.getItem() == null || booking.getItem().getId() == null) {
+            return "Не указана вещь для бронирования!";
+        }
+        Integer itemId = booking.getItem().getId();
+        Item item = items.get(itemId);
+        if (item == null) {
+            return new ItemNotFoundException(itemId).getMessage();
+        }
+        if (!item.getAvailable()) {
+            return new ItemNotAvailableException(itemId).getMessage();
+        }
+        if (Objects.equals(item.getOwner().getId(), bookerId)) {
+            return "Владелец не может бронировать свою вещь!";
+        }
+        return null;
+    }
+
+    /**
+     * Sweeps the candidates of one item in order of start time and accepts the ones that overlap neither
+     * an existing booking nor an already accepted candidate. Existing active bookings never overlap each other,
+     * so their ends are sorted as well and a single forward pointer is enough.
+     */
+    private List<Integer> sweepNonOverlapping(List<Integer> candidates, List<Booking> bookings, List<BookingInterval> existing) {
+        List<Integer> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparing((Integer i) -> bookings.get(i).getStart()).thenComparing(Comparator.naturalOrder()));
+        List<Integer> accepted = new ArrayList<>();
+        LocalDateTime acceptedEnd = null;
+        int next = 0;
+        for (int i : sorted) {
+            Booking candidate = bookings.get(i);
+            while (next < existing.size() && !existing.get(next).getEnd().isAfter(candidate.getStart())) {
+                next++;
+            }
+            boolean overlapsExisting = next < existing.size() && existing.get(next).getStart().isBefore(candidate.getEnd());
+            boolean overlapsAccepted = acceptedEnd != null && candidate.getStart().isBefore(acceptedEnd);
+            if (!overlapsExisting && !overlapsAccepted) {
+                accepted.add(i);
+                acceptedEnd = candidate.getEnd();
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Uses the constraint name when Hibernate extracts one, the SQL state otherwise: neither PostgreSQL exclusion
+     * violations nor H2 check violations get a name. The only other check on bookings guards the status enum,
+     * which the application cannot violate.
+     */
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && ((ConstraintViolationException) cause).getConstraintName() != null) {
+                return NO_OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName());
+            }
+            for (SQLException sqlException = cause instanceof SQLException ? (SQLException) cause : null;
+                 sqlException != null; sqlException = sqlException.getNextException()) {
+                if (OVERLAP_SQL_STATES.contains(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
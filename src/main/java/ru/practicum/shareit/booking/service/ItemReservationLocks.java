@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Striped locks that serialize check-and-insert of bookings for the same item.
+ * Inside a transaction the locks are held until it completes, so the next booking
+ * for the item is checked against committed data.
+ */
+@Component
+public class ItemReservationLocks {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+
+    public ItemReservationLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ItemReservationLocks(int stripesCount) {
+        stripes = new ReentrantLock[stripesCount];
+        for (int i = 0; i < stripesCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Reservation reserve(int itemId) {
+        return reserve(List.of(itemId));
+    }
+
+    public Reservation reserve(Collection<Integer> itemIds) {
+        List<ReentrantLock> locks = itemIds.stream()
+                .map(itemId -> Math.floorMod(itemId, stripes.length))
+                .distinct()
+                .sorted()
+                .map(stripe -> stripes[stripe])
+                .collect(Collectors.toList());
+        locks.forEach(ReentrantLock::lock);
+        Reservation reservation = new Reservation(locks);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reservation.release();
+                }
+            });
+            reservation.deferred = true;
+        }
+        return reservation;
+    }
+
+    public static class Reservation implements AutoCloseable {
+        private final List<ReentrantLock> locks;
+        private boolean deferred;
+
+        private Reservation(List<ReentrantLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            if (!deferred) {
+                release();
+            }
+        }
+
+        private void release() {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.common;
+
+public class PagingHeaders {
+    /**
+     * Response header with the cursor of the next page, absent on the last page.
+     */
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.common;
+
+import java.util.regex.Pattern;
+
+public class TextWords {
+    /**
+     * Runs of anything but letters and digits, which split text into words.
+     */
+    public static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+}
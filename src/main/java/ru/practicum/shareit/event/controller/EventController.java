@@ -0,0 +1,28 @@
+package ru.practicum.shareit.event.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.service.EventService;
+
+/**
+ * Server-sent events for the user: new bookings of their items, status changes of their bookings
+ * and items added for their requests, so clients do not have to poll for them.
+ */
+@RestController
+@RequestMapping(path = "/events")
+public class EventController {
+    private final EventService eventService;
+
+    public EventController(EventService eventService) {
+        this.eventService = eventService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        return eventService.subscribe(userId);
+    }
+}
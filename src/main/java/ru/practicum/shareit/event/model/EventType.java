@@ -0,0 +1,7 @@
+package ru.practicum.shareit.event.model;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_STATUS_CHANGED,
+    REQUEST_ITEM_ADDED
+}
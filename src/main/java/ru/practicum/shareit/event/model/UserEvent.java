@@ -0,0 +1,45 @@
+package ru.practicum.shareit.event.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Status;
+
+/**
+ * Change pushed to one user: a booking of their item, a status of their booking or an item for their request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserEvent {
+    @JsonIgnore
+    private Integer userId;
+    private EventType type;
+    private Integer bookingId;
+    private Integer itemId;
+    private Integer requestId;
+    private Status status;
+
+    public static UserEvent bookingCreated(Integer ownerId, Integer bookingId, Integer itemId) {
+        return new UserEvent(ownerId, EventType.BOOKING_CREATED, bookingId, itemId, null, Status.WAITING);
+    }
+
+    public static UserEvent bookingStatusChanged(Integer bookerId, Integer bookingId, Integer itemId, Status status) {
+        return new UserEvent(bookerId, EventType.BOOKING_STATUS_CHANGED, bookingId, itemId, null, status);
+    }
+
+    public static UserEvent requestItemAdded(Integer requestorId, Integer requestId, Integer itemId) {
+        return new UserEvent(requestorId, EventType.REQUEST_ITEM_ADDED, null, itemId, requestId, null);
+    }
+
+    /**
+     * Unsent events with the same key replace each other, so a slow client gets only the latest status of a booking.
+     */
+    @JsonIgnore
+    public String getCoalesceKey() {
+        return type + ":" + (bookingId != null ? bookingId : itemId);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.event.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code GET /events} stream. A subscriber holds at most {@code bufferSize} unsent events;
+ * older ones are dropped and the client gets a {@code DROPPED} event telling it to reload. A user keeps at most
+ * {@code maxStreamsPerUser} open streams, opening another one completes the oldest. At most {@code senderQueueSize}
+ * send tasks wait for the {@code senderThreads}; a stream whose send takes longer than {@code sendTimeout} is closed.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.events")
+public class EventProperties {
+    private Duration timeout = Duration.ofMinutes(30);
+    private int bufferSize = 32;
+    private int senderThreads = 2;
+    private int senderQueueSize = 1000;
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private int maxStreamsPerUser = 3;
+}
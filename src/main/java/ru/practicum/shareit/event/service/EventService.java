@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+
+public interface EventService {
+    SseEmitter subscribe(Integer userId) throws UserNotFoundException;
+}
@@ -0,0 +1,261 @@
+package ru.practicum.shareit.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.model.UserEvent;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed domain events to the SSE streams of their recipients. Publishing only appends to the bounded
+ * buffers of the subscribers; sending happens on a small pool with a bounded queue, at most one send task per
+ * subscriber at a time. A periodic heartbeat sends a keepalive comment to idle streams, restarts sends the full
+ * queue rejected and closes streams whose send has been stuck for longer than the send timeout.
+ */
+@Slf4j
+@Service
+public class EventServiceImpl implements EventService {
+    static final String DROPPED_EVENT = "DROPPED";
+    static final String KEEPALIVE_COMMENT = "keepalive";
+
+    private final UserRepository userRepository;
+    private final EventProperties eventProperties;
+    private final ExecutorService senders;
+    private final Map<Integer, Set<Subscriber>> subscribersByUserId = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptions = new AtomicLong();
+
+    public EventServiceImpl(UserRepository userRepository, EventProperties eventProperties) {
+        this.userRepository = userRepository;
+        this.eventProperties = eventProperties;
+        this.senders = new ThreadPoolExecutor(eventProperties.getSenderThreads(), eventProperties.getSenderThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(eventProperties.getSenderQueueSize()));
+    }
+
+    @Override
+    public SseEmitter subscribe(Integer userId) throws UserNotFoundException {
+        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        return subscribe(userId, new SseEmitter(eventProperties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(int userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, subscriptions.incrementAndGet());
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribersByUserId.compute(userId, (k, subscribers) -> {
+            Set<Subscriber> updated = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            updated.add(subscriber);
+            while (updated.size() > eventProperties.getMaxStreamsPerUser()) {
+                Subscriber oldest = Collections.min(updated, Comparator.comparingLong(s -> s.order));
+                updated.remove(oldest);
+                evicted.add(oldest);
+            }
+            return updated;
+        });
+        Runnable unsubscribe = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        for (Subscriber oldest : evicted) {
+            log.debug("У пользователя {} слишком много потоков событий, закрываем самый старый", userId);
+            oldest.close();
+            oldest.emitter.complete();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        Set<Subscriber> subscribers = subscribersByUserId.get(event.getUserId());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(event, eventProperties.getBufferSize())) {
+                submit(event.getUserId(), subscriber, false);
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to every idle stream, so proxies keep idle connections open and dead clients are dropped,
+     * and closes streams whose send is stuck. Streams with a send task already queued or running are not pinged.
+     */
+    @Scheduled(fixedDelayString = "${shareit.events.heartbeat-delay-ms:15000}",
+            initialDelayString = "${shareit.events.heartbeat-delay-ms:15000}")
+    public void heartbeat() {
+        long timeoutNanos = eventProperties.getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        subscribersByUserId.forEach((userId, subscribers) -> subscribers.forEach(subscriber -> {
+            long sendStartedAt = subscriber.sendStartedAt;
+            if (sendStartedAt != 0 && now - sendStartedAt > timeoutNanos) {
+                fail(userId, subscriber, new TimeoutException(
+                        "Отправка события не завершилась за " + eventProperties.getSendTimeout()));
+            } else if (subscriber.startKeepalive()) {
+                submit(userId, subscriber, true);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Queues the send task of a subscriber that has just become busy; when the queue is full the subscriber is
+     * released and its buffered events wait for the next event or heartbeat.
+     */
+    private void submit(int userId, Subscriber subscriber, boolean keepalive) {
+        try {
+            senders.execute(() -> drain(userId, subscriber, keepalive));
+        } catch (RejectedExecutionException e) {
+            log.debug("Очередь отправки событий заполнена, подписчик {} ждет следующей попытки", userId);
+            subscriber.release();
+        }
+    }
+
+    private void drain(int userId, Subscriber subscriber, boolean keepalive) {
+        try {
+            if (keepalive) {
+                send(subscriber, SseEmitter.event().comment(KEEPALIVE_COMMENT));
+            }
+            UserEvent event;
+            while ((event = subscriber.poll()) != null) {
+                int dropped = subscriber.takeDropped();
+                if (dropped > 0) {
+                    send(subscriber, SseEmitter.event().name(DROPPED_EVENT).data(dropped));
+                }
+                send(subscriber, SseEmitter.event()
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(userId, subscriber, e);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendStartedAt = 0;
+        }
+    }
+
+    private void fail(int userId, Subscriber subscriber, Throwable e) {
+        log.debug("Подписчик {} отключился: {}", userId, e.getMessage());
+        unsubscribe(userId, subscriber);
+        subscriber.emitter.completeWithError(e);
+    }
+
+    private void unsubscribe(int userId, Subscriber subscriber) {
+        subscriber.close();
+        subscribersByUserId.computeIfPresent(userId, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * Unsent events of one stream, keyed by {@link UserEvent#getCoalesceKey()} in arrival order. The stream is busy
+     * while its send task is queued or running.
+     */
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final long order;
+        private final LinkedHashMap<String, UserEvent> pending = new LinkedHashMap<>();
+        private volatile long sendStartedAt;
+        private int dropped;
+        private boolean busy;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, long order) {
+            this.emitter = emitter;
+            this.order = order;
+        }
+
+        /**
+         * Buffers the event, dropping the oldest one when full.
+         *
+         * @return whether a drain task has to be started
+         */
+        synchronized boolean offer(UserEvent event, int bufferSize) {
+            if (closed) {
+                return false;
+            }
+            pending.remove(event.getCoalesceKey());
+            pending.put(event.getCoalesceKey(), event);
+            if (pending.size() > bufferSize) {
+                Iterator<UserEvent> oldest = pending.values().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped++;
+            }
+            if (busy) {
+                return false;
+            }
+            busy = true;
+            return true;
+        }
+
+        /**
+         * Marks an idle stream busy for a keepalive; events buffered meanwhile are sent by the same task.
+         */
+        synchronized boolean startKeepalive() {
+            if (closed || busy) {
+                return false;
+            }
+            busy = true;
+            return true;
+        }
+
+        synchronized void release() {
+            busy = false;
+        }
+
+        synchronized UserEvent poll() {
+            Iterator<UserEvent> oldest = pending.values().iterator();
+            if (closed || !oldest.hasNext()) {
+                busy = false;
+                return null;
+            }
+            UserEvent event = oldest.next();
+            oldest.remove();
+            return event;
+        }
+
+        synchronized int takeDropped() {
+            int count = dropped;
+            dropped = 0;
+            return count;
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+    }
+}
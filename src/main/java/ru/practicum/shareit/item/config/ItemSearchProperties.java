@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Item search settings. {@code FULL_TEXT} needs the search_vector column created by schema-postgresql.sql,
+ * {@code INDEX} serves searches from the in-memory index and falls back to LIKE until it is built.
+ * {@code fuzzy} ranks items by trigram similarity instead: pg_trgm in {@code FULL_TEXT} mode, the in-memory index
+ * in {@code INDEX} mode; {@code LIKE} mode has no trigram index and ignores it. It is off unless a deployment
+ * opts in. Fuzzy results are limited to the {@code fuzzyLimit} most similar items, pages past them are empty.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.item.search")
+public class ItemSearchProperties {
+    private Mode mode = Mode.LIKE;
+    private boolean fuzzy;
+    private double similarityThreshold = 0.3;
+    private int fuzzyLimit = 100;
+    private Cache cache = new Cache();
+
+    public enum Mode {
+        LIKE,
+        FULL_TEXT,
+        INDEX
+    }
+
+    /**
+     * Result cache of {@code searchAvailableItems}; a max size of zero turns it off.
+     */
+    @Data
+    public static class Cache {
+        private int maxSize = 1000;
+        private Duration ttl = Duration.ofMinutes(1);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,23 +10,27 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingInfoDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemAvailabilityMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
-
     private final ItemService itemService;
 
     public ItemController(ItemService itemService) {
@@ -60,9 +65,44 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> searchItems(
             @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "10") Integer size) {
-        return itemService.searchAvailableItems(text, from, size).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        return itemService.searchAvailableItems(text, start, end, from, size).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(
+            @PathVariable Integer itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return ItemAvailabilityMapper.toItemAvailabilityDto(itemService.getItemAvailability(itemId, from, to));
+    }
+
+    /**
+     * Comments of the item, newest first; the next page starts after the id sent back in the X-Next-Cursor header.
+     */
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(
+            @PathVariable Integer itemId,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "10") Integer size,
+            HttpServletResponse response
+    ) {
+        List<Comment> comments = itemService.getComments(itemId, after, size);
+        if (comments.size() == size) {
+            response.setHeader(PagingHeaders.NEXT_CURSOR, String.valueOf(comments.get(comments.size() - 1).getId()));
+        }
+        return comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
     }
 
     @PostMapping("/{itemId}/comment")
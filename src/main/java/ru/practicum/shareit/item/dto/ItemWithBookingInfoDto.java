@@ -22,4 +22,5 @@ public class ItemWithBookingInfoDto {
     private BookingDto nextBooking;
     private BookingDto lastBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.ItemAvailability;
+import ru.practicum.shareit.item.model.TimeSlot;
+
+import java.util.stream.Collectors;
+
+public class ItemAvailabilityMapper {
+    public static ItemAvailabilityDto toItemAvailabilityDto(ItemAvailability availability) {
+        if (availability == null) {
+            return null;
+        }
+        return new ItemAvailabilityDto(
+                availability.getItemId(),
+                availability.getFrom(),
+                availability.getTo(),
+                availability.getBusy().stream().map(ItemAvailabilityMapper::toTimeSlotDto).collect(Collectors.toList()),
+                availability.getFree().stream().map(ItemAvailabilityMapper::toTimeSlotDto).collect(Collectors.toList())
+        );
+    }
+
+    public static TimeSlotDto toTimeSlotDto(TimeSlot timeSlot) {
+        if (timeSlot == null) {
+            return null;
+        }
+        return new TimeSlotDto(timeSlot.getStart(), timeSlot.getEnd());
+    }
+}
@@ -33,11 +33,12 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                item.getRequest() != null ? item.getRequest().getId() : null,
+                item.getRequestId(),
                 BookingMapper.toBookingDto(itemBookingInfo.getNextBooking()),
                 BookingMapper.toBookingDto(itemBookingInfo.getLastBooking()),
                 itemBookingInfo.getComments()
-                        .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList())
+                        .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()),
+                itemBookingInfo.getCommentCount()
         );
     }
 
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * Row of the windowed latest-comments query: a comment id within the latest ones of its item and the item's total.
+ */
+public interface CommentRank {
+    Integer getId();
+
+    Integer getItemId();
+
+    Long getTotal();
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailability {
+    private Integer itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TimeSlot> busy;
+    private List<TimeSlot> free;
+}
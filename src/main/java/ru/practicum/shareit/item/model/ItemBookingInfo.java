@@ -16,6 +16,10 @@ public class ItemBookingInfo {
     private Item item;
     private Booking lastBooking;
     private Booking nextBooking;
+    /**
+     * Latest comments only, newest first; {@code commentCount} counts all of them.
+     */
     @NonNull
     private List<Comment> comments;
+    private long commentCount;
 }
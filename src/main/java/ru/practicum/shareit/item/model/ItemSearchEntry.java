@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSearchEntry {
+    private Integer id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Integer requestId;
+}
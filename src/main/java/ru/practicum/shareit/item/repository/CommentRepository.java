@@ -1,15 +1,38 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentRank;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
-    List<Comment> findAllByItemId(int itemId);
+    /**
+     * Ids of the latest comments of every item, at most limit per item, with the item's comment count.
+     */
+    @Query(value = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.total AS total FROM (" +
+            "SELECT c.id, c.item_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.id DESC) AS position, " +
+            "COUNT(*) OVER (PARTITION BY c.item_id) AS total " +
+            "FROM comments c " +
+            "WHERE c.item_id IN (?1)) ranked " +
+            "WHERE ranked.position <= ?2",
+            nativeQuery = true)
+    List<CommentRank> findLatestByItemIdIn(Collection<Integer> itemIds, int limit);
 
-    List<Comment> findAllByItemIdInOrderByIdAsc(List<Integer> itemIds);
+    @EntityGraph(Comment.ITEM_VIEW_GRAPH)
+    List<Comment> findAllByIdInOrderByIdDesc(Collection<Integer> ids);
+
+    @EntityGraph(Comment.ITEM_VIEW_GRAPH)
+    List<Comment> findByItemIdOrderByIdDesc(int itemId, Pageable pageable);
+
+    @EntityGraph(Comment.ITEM_VIEW_GRAPH)
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(int itemId, int after, Pageable pageable);
 }
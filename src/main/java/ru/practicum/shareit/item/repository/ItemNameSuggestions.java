@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Names of available items sorted by upper-cased name, for prefix lookups with binary search.
+ * Readers see an immutable array; a change swaps in a copy once the transaction that saved the item commits.
+ */
+@Component
+public class ItemNameSuggestions {
+    private static final Comparator<Suggestion> ORDER =
+            Comparator.comparing((Suggestion suggestion) -> suggestion.key).thenComparingInt(suggestion -> suggestion.itemId);
+
+    private final ItemRepository itemRepository;
+    private final Map<Integer, Suggestion> suggestionsByItemId = new HashMap<>();
+    private volatile Suggestion[] suggestions;
+
+    public ItemNameSuggestions(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void build() {
+        suggestionsByItemId.clear();
+        try (Stream<ItemSearchEntry> entries = itemRepository.streamSearchEntries()) {
+            entries.filter(entry -> Boolean.TRUE.equals(entry.getAvailable()) && entry.getName() != null)
+                    .forEach(entry -> suggestionsByItemId.put(entry.getId(), new Suggestion(entry.getId(), entry.getName())));
+        }
+        Suggestion[] sorted = suggestionsByItemId.values().toArray(new Suggestion[0]);
+        Arrays.sort(sorted, ORDER);
+        suggestions = sorted;
+    }
+
+    /**
+     * Returns up to limit distinct names starting with the prefix, ignoring case, in alphabetical order.
+     * Has to run inside a transaction the first time, when the names are loaded.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (suggestions == null) {
+            build();
+        }
+        Suggestion[] current = suggestions;
+        String key = prefix.toUpperCase(Locale.ROOT);
+        Set<String> names = new LinkedHashSet<>();
+        int index = Arrays.binarySearch(current, new Suggestion(Integer.MIN_VALUE, key, key), ORDER);
+        for (int i = index >= 0 ? index : -index - 1; i < current.length && names.size() < limit; i++) {
+            if (!current[i].key.startsWith(key)) {
+                break;
+            }
+            names.add(current[i].name);
+        }
+        return new ArrayList<>(names);
+    }
+
+    public void update(Item item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        int itemId = item.getId();
+        Suggestion suggestion = Boolean.TRUE.equals(item.getAvailable()) && item.getName() != null
+                ? new Suggestion(itemId, item.getName())
+                : null;
+        afterCommit(() -> replace(itemId, suggestion));
+    }
+
+    private synchronized void replace(int itemId, Suggestion suggestion) {
+        if (suggestions == null) {
+            return;
+        }
+        Suggestion previous = suggestion == null
+                ? suggestionsByItemId.remove(itemId)
+                : suggestionsByItemId.put(itemId, suggestion);
+        List<Suggestion> updated = new ArrayList<>(Arrays.asList(suggestions));
+        if (previous != null) {
+            updated.remove(Collections.binarySearch(updated, previous, ORDER));
+        }
+        if (suggestion != null) {
+            updated.add(-Collections.binarySearch(updated, suggestion, ORDER) - 1, suggestion);
+        }
+        suggestions = updated.toArray(new Suggestion[0]);
+    }
+
+    private static class Suggestion {
+        private final int itemId;
+        private final String name;
+        private final String key;
+
+        Suggestion(int itemId, String name) {
+            this(itemId, name, name.toUpperCase(Locale.ROOT));
+        }
+
+        Suggestion(int itemId, String name, String key) {
+            this.itemId = itemId;
+            this.name = name;
+            this.key = key;
+        }
+    }
+}
@@ -4,18 +4,77 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
     List<Item> findByOwnerId(int ownerId, Pageable pageable) throws UserNotFoundException;
 
+    boolean existsByOwnerId(int ownerId);
+
+    @Query("SELECT i FROM Item i " +
+            "JOIN FETCH i.owner " +
+            "LEFT JOIN FETCH i.request " +
+            "WHERE i.id IN (?1)")
+    List<Item> findAllWithOwnerByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemSearchEntry(i.id, i.name, i.description, i.available, i.requestId) " +
+            "FROM Item i " +
+            "ORDER BY i.id")
+    Stream<ItemSearchEntry> streamSearchEntries();
+
     @Query(" SELECT i FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(concat('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(concat('%', ?1, '%'))" +
+            "WHERE (UPPER(i.name) LIKE UPPER(concat('%', ?1, '%')) " +
+            "OR UPPER(i.description) LIKE UPPER(concat('%', ?1, '%'))) " +
             "AND i.available = TRUE")
     List<Item> searchAvailable(String text, Pageable pageable);
+
+    /**
+     * Postgres only: matches whole words of name and description through the GIN-indexed search_vector column,
+     * most relevant items first.
+     */
+    @Query(value = "SELECT i.* FROM items i, plainto_tsquery('simple', ?1) q " +
+            "WHERE i.search_vector @@ q " +
+            "AND i.available = TRUE " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailableFullText(String text, Pageable pageable);
+
+    /**
+     * Postgres only: sets the word similarity threshold of pg_trgm until the end of the current transaction.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', ?1, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(String threshold);
+
+    /**
+     * Postgres only: matches name and description through the trigram-indexed search_text column,
+     * most similar items first.
+     */
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE ?1 <% i.search_text " +
+            "AND i.available = TRUE " +
+            "ORDER BY word_similarity(?1, i.search_text) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailableSimilar(String text, Pageable pageable);
+
+    @Query(" SELECT i FROM Item i " +
+            "WHERE (UPPER(i.name) LIKE UPPER(concat('%', ?1, '%')) " +
+            "OR UPPER(i.description) LIKE UPPER(concat('%', ?1, '%'))) " +
+            "AND i.available = TRUE " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i " +
+            "AND b.start < ?3 " +
+            "AND b.end > ?2 " +
+            "AND b.status IN (?4))")
+    List<Item> searchAvailableWithoutBookingsBetween(
+            String text, LocalDateTime start, LocalDateTime end, List<Status> statuses, Pageable pageable
+    );
 }
@@ -0,0 +1,218 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.common.TextWords.WORD_SEPARATOR;
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * LRU cache of search result ids keyed by upper-cased text, offset and size, with a time to live per entry.
+ * Cached texts are indexed by the word trigrams of the query, so a saved item evicts only the texts it could match.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=ItemSearchCache")
+public class ItemSearchCache {
+    private final ItemSearchProperties itemSearchProperties;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByText = new HashMap<>();
+    private final Map<String, Set<String>> textsByGram = new HashMap<>();
+    private final Set<String> textsWithoutGrams = new HashSet<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchProperties itemSearchProperties) {
+        this.itemSearchProperties = itemSearchProperties;
+    }
+
+    /**
+     * Returns the cached ids or null on a miss.
+     */
+    public synchronized List<Integer> get(String text, int offset, int size) {
+        String key = key(text, offset, size);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime(), itemSearchProperties.getCache().getTtl().toNanos())) {
+            remove(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.itemIds;
+    }
+
+    /**
+     * Value to pass to {@link #put} for results computed after this call.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the ids unless an item was saved since the generation was taken, so a stale result is never cached.
+     */
+    public synchronized void put(String text, int offset, int size, List<Integer> itemIds, long generation) {
+        int maxSize = itemSearchProperties.getCache().getMaxSize();
+        if (maxSize <= 0 || generation != this.generation.get()) {
+            return;
+        }
+        String normalizedText = ItemSearchIndex.normalize(text);
+        String key = key(text, offset, size);
+        entries.put(key, new Entry(normalizedText, List.copyOf(itemIds), System.nanoTime()));
+        if (!keysByText.containsKey(normalizedText)) {
+            register(normalizedText);
+        }
+        keysByText.computeIfAbsent(normalizedText, k -> new HashSet<>()).add(key);
+        while (entries.size() > maxSize) {
+            remove(entries.keySet().iterator().next());
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evicts, once the transaction commits, every cached text the item could match before or after the change.
+     *
+     * @param before state of the item before the change, null for a new item
+     */
+    public void invalidate(ItemSearchEntry before, ItemSearchEntry after) {
+        if (!isVisible(before) && !isVisible(after)) {
+            return;
+        }
+        generation.incrementAndGet();
+        String[] texts = {text(before), text(after)};
+        afterCommit(() -> evictMatching(texts));
+    }
+
+    @ManagedAttribute
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @ManagedAttribute
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    @ManagedAttribute
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    private synchronized void evictMatching(String[] itemTexts) {
+        generation.incrementAndGet();
+        Set<String> candidates = new HashSet<>(textsWithoutGrams);
+        for (String gram : ItemSearchIndex.wordGrams(itemTexts)) {
+            candidates.addAll(textsByGram.getOrDefault(gram, Set.of()));
+        }
+        boolean fuzzy = itemSearchProperties.isFuzzy();
+        for (String text : candidates) {
+            if (fuzzy || Arrays.stream(itemTexts).anyMatch(itemText -> containsAllWords(itemText, text))) {
+                Set<String> keys = keysByText.get(text);
+                if (keys != null) {
+                    invalidations.addAndGet(keys.size());
+                    List.copyOf(keys).forEach(this::remove);
+                }
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        Set<String> keys = keysByText.get(entry.text);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByText.remove(entry.text);
+            unregister(entry.text);
+        }
+    }
+
+    /**
+     * A text matches only items containing each of its words, so one of its word trigrams has to occur in the item.
+     * Words shorter than three characters have no trigram of their own and are checked against every change.
+     */
+    private void register(String text) {
+        Set<String> grams = ItemSearchIndex.wordGrams(text);
+        if (hasShortWord(text) || grams.isEmpty()) {
+            textsWithoutGrams.add(text);
+        } else {
+            grams.forEach(gram -> textsByGram.computeIfAbsent(gram, k -> new HashSet<>()).add(text));
+        }
+    }
+
+    private void unregister(String text) {
+        textsWithoutGrams.remove(text);
+        for (String gram : ItemSearchIndex.wordGrams(text)) {
+            Set<String> texts = textsByGram.get(gram);
+            if (texts != null && texts.remove(text) && texts.isEmpty()) {
+                textsByGram.remove(gram);
+            }
+        }
+    }
+
+    private static boolean hasShortWord(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(text)).anyMatch(word -> !word.isEmpty() && word.length() < 3);
+    }
+
+    private static boolean containsAllWords(String itemText, String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(text)).allMatch(itemText::contains);
+    }
+
+    private static boolean isVisible(ItemSearchEntry entry) {
+        return entry != null && Boolean.TRUE.equals(entry.getAvailable());
+    }
+
+    private static String text(ItemSearchEntry entry) {
+        return entry == null ? "" : ItemSearchIndex.normalize(entry.getName()) + " " + ItemSearchIndex.normalize(entry.getDescription());
+    }
+
+    private static String key(String text, int offset, int size) {
+        return offset + ":" + size + ":" + ItemSearchIndex.normalize(text);
+    }
+
+    private static class Entry {
+        private final String text;
+        private final List<Integer> itemIds;
+        private final long createdAt;
+
+        Entry(String text, List<Integer> itemIds, long createdAt) {
+            this.text = text;
+            this.itemIds = itemIds;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long now, long ttl) {
+            return now - createdAt >= ttl;
+        }
+    }
+}
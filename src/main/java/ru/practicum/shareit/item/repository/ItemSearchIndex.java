@@ -0,0 +1,391 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.common.TextWords.WORD_SEPARATOR;
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory counterpart of {@link ItemRepository#searchAvailable}: trigrams of the upper-cased name and description
+ * mapped to sorted id arrays. Candidates are verified with a substring check, so results match the LIKE query.
+ * Word trigrams padded the way pg_trgm does it back the typo-tolerant {@link #searchSimilar}.
+ * Built on startup in {@code INDEX} mode, updated once the transaction that saved an item commits; updates committed
+ * while the build reads the table are queued and replayed before the index is marked loaded.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Integer, Document> documents = new TreeMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Postings> wordPostings = new HashMap<>();
+    private final AtomicLong updateSequence = new AtomicLong();
+    private List<Document> pendingUpdates;
+    private volatile boolean loaded;
+
+    public ItemSearchIndex(ItemRepository itemRepository, ItemSearchProperties itemSearchProperties) {
+        this.itemRepository = itemRepository;
+        this.itemSearchProperties = itemSearchProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void build() {
+        if (itemSearchProperties.getMode() != ItemSearchProperties.Mode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Document> loadedDocuments;
+        try (Stream<ItemSearchEntry> entries = itemRepository.streamSearchEntries()) {
+            loadedDocuments = entries.collect(Collectors.toList())
+                    .parallelStream()
+                    .map(Document::new)
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            wordPostings.clear();
+            loadedDocuments.forEach(this::put);
+            pendingUpdates.forEach(this::put);
+            pendingUpdates = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns available items whose name or description contains the text, ordered by id.
+     */
+    public List<Item> search(String text, int offset, int size) {
+        String query = normalize(text);
+        List<Item> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (Document document : candidates(query)) {
+                if (found.size() == size) {
+                    break;
+                }
+                if (document.matches(query) && skipped++ >= offset) {
+                    found.add(document.toItem());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Returns a page of available items sharing at least the threshold share of the query's word trigrams,
+     * most similar first and then by id. Mirrors {@code word_similarity} of pg_trgm closely enough to tolerate
+     * a typo or two. Only the best {@code offset + size} candidates are kept in a heap, the rest are never sorted.
+     */
+    public List<Item> searchSimilar(String text, double threshold, int offset, int size) {
+        Set<String> queryGrams = wordGrams(normalize(text));
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Integer> shared = new HashMap<>();
+        List<Item> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String gram : queryGrams) {
+                Postings list = wordPostings.get(gram);
+                for (int i = 0; list != null && i < list.size; i++) {
+                    shared.merge(list.ids[i], 1, Integer::sum);
+                }
+            }
+            Comparator<Map.Entry<Integer, Integer>> ranking = Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Integer, Integer>> best = new PriorityQueue<>(ranking.reversed());
+            for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+                if ((double) e.getValue() / queryGrams.size() < threshold
+                        || !Boolean.TRUE.equals(documents.get(e.getKey()).entry.getAvailable())) {
+                    continue;
+                }
+                best.add(e);
+                if (best.size() > offset + size) {
+                    best.poll();
+                }
+            }
+            best.stream()
+                    .sorted(ranking)
+                    .skip(offset)
+                    .forEach(e -> found.add(documents.get(e.getKey()).toItem()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    public void update(Item item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        Document document = new Document(new ItemSearchEntry(
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId()));
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                document.updatedAt = updateSequence.incrementAndGet();
+                if (pendingUpdates != null) {
+                    pendingUpdates.add(document);
+                }
+                if (loaded) {
+                    put(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Compares the index with the items table and repairs entries that drifted, a safety net for missed updates.
+     * Documents updated after the table read started are newer than its rows and are left as they are.
+     *
+     * @return number of repaired entries
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.search.reconcile-delay-ms:300000}",
+            initialDelayString = "${shareit.item.search.reconcile-delay-ms:300000}")
+    @Transactional
+    public int reconcile() {
+        if (!loaded) {
+            return 0;
+        }
+        long readStartedAt = updateSequence.get();
+        Map<Integer, ItemSearchEntry> rows;
+        try (Stream<ItemSearchEntry> entries = itemRepository.streamSearchEntries()) {
+            rows = entries.collect(Collectors.toMap(ItemSearchEntry::getId, Function.identity()));
+        }
+        int repaired = 0;
+        lock.writeLock().lock();
+        try {
+            for (ItemSearchEntry row : rows.values()) {
+                Document document = documents.get(row.getId());
+                if (document != null && document.updatedAt > readStartedAt) {
+                    continue;
+                }
+                if (document == null || !document.entry.equals(row)) {
+                    put(new Document(row));
+                    repaired++;
+                }
+            }
+            for (Integer itemId : new ArrayList<>(documents.keySet())) {
+                if (!rows.containsKey(itemId) && documents.get(itemId).updatedAt <= readStartedAt) {
+                    remove(itemId);
+                    repaired++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (repaired > 0) {
+            log.warn("Индекс поиска вещей расходился с таблицей, исправлено записей: {}", repaired);
+        }
+        return repaired;
+    }
+
+    private Iterable<Document> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.values();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings smallest = lists.get(0);
+        List<Document> candidates = new ArrayList<>();
+        for (int i = 0; i < smallest.size; i++) {
+            int itemId = smallest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(itemId);
+            }
+            if (inAll) {
+                candidates.add(documents.get(itemId));
+            }
+        }
+        return candidates;
+    }
+
+    private void put(Document document) {
+        int itemId = document.entry.getId();
+        remove(itemId);
+        documents.put(itemId, document);
+        for (String gram : document.grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(itemId);
+        }
+        for (String gram : document.wordGrams) {
+            wordPostings.computeIfAbsent(gram, key -> new Postings()).add(itemId);
+        }
+    }
+
+    private void remove(int itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        removePostings(postings, document.grams, itemId);
+        removePostings(wordPostings, document.wordGrams, itemId);
+    }
+
+    private static void removePostings(Map<String, Postings> postings, String[] grams, int itemId) {
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Trigrams of every word padded with two spaces in front and one behind, as pg_trgm builds them.
+     */
+    static Set<String> wordGrams(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String word : WORD_SEPARATOR.split(text)) {
+                if (!word.isEmpty()) {
+                    grams.addAll(grams("  " + word + " "));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static class Document {
+        private final ItemSearchEntry entry;
+        private final String name;
+        private final String description;
+        private final String[] grams;
+        private final String[] wordGrams;
+        /**
+         * Value of the update sequence when {@link #update} indexed the document, 0 for documents read from the table.
+         */
+        private long updatedAt;
+
+        Document(ItemSearchEntry entry) {
+            this.entry = entry;
+            this.name = normalize(entry.getName());
+            this.description = normalize(entry.getDescription());
+            this.grams = grams(name, description).toArray(new String[0]);
+            this.wordGrams = wordGrams(name, description).toArray(new String[0]);
+        }
+
+        boolean matches(String query) {
+            return Boolean.TRUE.equals(entry.getAvailable()) && (name.contains(query) || description.contains(query));
+        }
+
+        Item toItem() {
+            return new Item(entry.getId(), entry.getName(), entry.getDescription(), entry.getAvailable(), null, entry.getRequestId(), null);
+        }
+    }
+
+    /**
+     * Sorted set of item ids kept in a growable int array.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        boolean contains(int itemId) {
+            return Arrays.binarySearch(ids, 0, size, itemId) >= 0;
+        }
+
+        void add(int itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = itemId;
+            size++;
+        }
+
+        boolean remove(int itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
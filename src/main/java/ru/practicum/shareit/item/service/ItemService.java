@@ -4,9 +4,11 @@ import ru.practicum.shareit.error.exception.ForbiddenException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemAvailability;
 import ru.practicum.shareit.item.model.ItemBookingInfo;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -20,6 +22,14 @@ public interface ItemService {
 
     List<Item> searchAvailableItems(String text, Integer from, Integer size);
 
+    List<String> suggestItemNames(String prefix, Integer size);
+
+    List<Item> searchAvailableItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    ItemAvailability getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) throws ItemNotFoundException;
+
+    List<Comment> getComments(int itemId, Integer after, Integer size) throws ItemNotFoundException;
+
     Comment addComment(Comment comment, int itemId, int userId) throws ForbiddenException;
 
 }
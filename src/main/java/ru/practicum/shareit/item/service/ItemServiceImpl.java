@@ -1,19 +1,34 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingPointers;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
 import ru.practicum.shareit.error.exception.ForbiddenException;
+import ru.practicum.shareit.event.model.UserEvent;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentRank;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemAvailability;
 import ru.practicum.shareit.item.model.ItemBookingInfo;
+import ru.practicum.shareit.item.model.ItemComments;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+import ru.practicum.shareit.item.model.TimeSlot;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemNameSuggestions;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchCache;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMatchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -22,10 +37,13 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ItemServiceImpl implements ItemService {
@@ -35,16 +53,35 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNameSuggestions itemNameSuggestions;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemRequestMatchIndex itemRequestMatchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private static final List<Status> NEGATIVE_BOOKING_STATUSES =
-            List.of(Status.CANCELED, Status.REJECTED);
+    private static final List<Status> ACTIVE_BOOKING_STATUSES =
+            List.of(Status.WAITING, Status.APPROVED);
+    private static final int LATEST_COMMENTS = 10;
 
-    public ItemServiceImpl(UserRepository userRepository, ItemRepository itemRepository, BookingRepository bookingRepository, CommentRepository commentRepository, ItemRequestRepository itemRequestRepository) {
+    public ItemServiceImpl(UserRepository userRepository, ItemRepository itemRepository, BookingRepository bookingRepository, CommentRepository commentRepository, ItemRequestRepository itemRequestRepository,
+                           ItemBookingPointers itemBookingPointers, ItemSearchProperties itemSearchProperties,
+                           ItemSearchIndex itemSearchIndex, ItemNameSuggestions itemNameSuggestions,
+                           ItemSearchCache itemSearchCache, ItemRequestMatchIndex itemRequestMatchIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemBookingPointers = itemBookingPointers;
+        this.itemSearchProperties = itemSearchProperties;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemNameSuggestions = itemNameSuggestions;
+        this.itemSearchCache = itemSearchCache;
+        this.itemRequestMatchIndex = itemRequestMatchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -56,7 +93,16 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest itemRequest = itemRequestRepository.findById(item.getRequestId()).orElseThrow(() -> new ItemRequestNotFoundException(item.getRequestId()));
             item.setRequest(itemRequest);
         }
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.update(savedItem);
+        itemNameSuggestions.update(savedItem);
+        itemSearchCache.invalidate(null, toSearchEntry(savedItem));
+        itemRequestMatchIndex.match(savedItem);
+        if (savedItem.getRequest() != null) {
+            eventPublisher.publishEvent(UserEvent.requestItemAdded(
+                    savedItem.getRequest().getRequestor().getId(), savedItem.getRequest().getId(), savedItem.getId()));
+        }
+        return savedItem;
     }
 
     @Override
@@ -65,6 +111,7 @@ public class ItemServiceImpl implements ItemService {
         User itemOwner = userRepository.findById(ownerId).orElseThrow(() -> new UserNotFoundException(ownerId));
         Item itemToUpdate = itemRepository.findById(item.getId()).orElseThrow(() -> new ItemNotFoundException(item.getId()));
         if (Objects.equals(itemToUpdate.getOwner().getId(), itemOwner.getId())) {
+            ItemSearchEntry before = toSearchEntry(itemToUpdate);
             if (item.getName() != null) {
                 itemToUpdate.setName(item.getName());
             }
@@ -74,31 +121,31 @@ public class ItemServiceImpl implements ItemService {
             if (item.getAvailable() != null) {
                 itemToUpdate.setAvailable(item.getAvailable());
             }
-            return itemRepository.save(itemToUpdate);
+            Item savedItem = itemRepository.save(itemToUpdate);
+            itemSearchIndex.update(savedItem);
+            itemNameSuggestions.update(savedItem);
+            itemSearchCache.invalidate(before, toSearchEntry(savedItem));
+            return savedItem;
         } else {
             throw new ForbiddenException("Попытка изменить чужую вещь!");
         }
     }
 
+    private static ItemSearchEntry toSearchEntry(Item item) {
+        return new ItemSearchEntry(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId());
+    }
+
     @Override
     @Transactional
     public ItemBookingInfo getItemByIdAndUserId(Integer itemId, Integer userId) throws UserNotFoundException, ItemNotFoundException {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
+        ItemComments comments = getLatestComments(List.of(item.getId())).getOrDefault(item.getId(), new ItemComments());
         if (!Objects.equals(user.getId(), item.getOwner().getId())) {
-            return new ItemBookingInfo(item, comments);
+            return new ItemBookingInfo(item, null, null, comments.getLatest(), comments.getTotal());
         }
-        LocalDateTime nowDateTime = LocalDateTime.now();
-        Booking lastBooking = bookingRepository
-                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
-                        List.of(item.getId()), user.getId(), nowDateTime, NEGATIVE_BOOKING_STATUSES)
-                .stream().findFirst().orElse(null);
-        Booking nextBooking = bookingRepository
-                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
-                        List.of(item.getId()), user.getId(), nowDateTime, NEGATIVE_BOOKING_STATUSES
-                ).stream().findFirst().orElse(null);
-        return new ItemBookingInfo(item, lastBooking, nextBooking, comments);
+        BookingPointers pointers = itemBookingPointers.get(item, user.getId());
+        return new ItemBookingInfo(item, pointers.getLast(), pointers.getNext(), comments.getLatest(), comments.getTotal());
     }
 
     @Override
@@ -112,33 +159,41 @@ public class ItemServiceImpl implements ItemService {
         if (userItems.isEmpty()) {
             return new ArrayList<>();
         }
-        LocalDateTime nowDateTime = LocalDateTime.now();
         List<Integer> userItemIds = userItems.stream().map(Item::getId).collect(Collectors.toList());
-        Map<Integer, List<Booking>> lastBookings = bookingRepository
-                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(userItemIds, user.getId(), nowDateTime, NEGATIVE_BOOKING_STATUSES)
-                .stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-        Map<Integer, List<Booking>> nextBookings = bookingRepository
-                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(userItemIds, user.getId(), nowDateTime, NEGATIVE_BOOKING_STATUSES)
-                .stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-        Map<Integer, List<Comment>> comments = commentRepository
-                .findAllByItemIdInOrderByIdAsc(userItemIds)
-                .stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Integer, BookingPointers> pointers = itemBookingPointers.get(userItems, user.getId());
+        Map<Integer, ItemComments> comments = getLatestComments(userItemIds);
         List<ItemBookingInfo> itemBookingsInfo =
-                userItems.stream().map(it ->
-                        new ItemBookingInfo(
-                                it,
-                                lastBookings.getOrDefault(it.getId(), new ArrayList<>()).stream().findFirst().orElse(null),
-                                nextBookings.getOrDefault(it.getId(), new ArrayList<>()).stream().findFirst().orElse(null),
-                                comments.getOrDefault(it.getId(), new ArrayList<>())
-                        )
-                ).collect(Collectors.toList());
+                userItems.stream().map(it -> {
+                    ItemComments itemComments = comments.getOrDefault(it.getId(), new ItemComments());
+                    return new ItemBookingInfo(
+                            it,
+                            pointers.get(it.getId()).getLast(),
+                            pointers.get(it.getId()).getNext(),
+                            itemComments.getLatest(),
+                            itemComments.getTotal()
+                    );
+                }).collect(Collectors.toList());
         return itemBookingsInfo;
     }
 
+    /**
+     * Latest comments of every item with one windowed query for the ids and counts and one for the comments.
+     * Items without comments are missing from the result.
+     */
+    private Map<Integer, ItemComments> getLatestComments(List<Integer> itemIds) {
+        List<CommentRank> ranks = commentRepository.findLatestByItemIdIn(itemIds, LATEST_COMMENTS);
+        if (ranks.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Integer, ItemComments> comments = new HashMap<>();
+        ranks.forEach(rank -> comments.computeIfAbsent(rank.getItemId(), id -> new ItemComments(new ArrayList<>(), rank.getTotal())));
+        commentRepository.findAllByIdInOrderByIdDesc(ranks.stream().map(CommentRank::getId).collect(Collectors.toList()))
+                .forEach(comment -> comments.get(comment.getItem().getId()).getLatest().add(comment));
+        return comments;
+    }
+
     @Override
+    @Transactional
     public List<Item> searchAvailableItems(String text, Integer from, Integer size) {
         if (text.isBlank()) {
             return new ArrayList<>();
@@ -146,8 +201,147 @@ public class ItemServiceImpl implements ItemService {
             if (size <= 0) {
                 throw new IllegalArgumentException("Размер должен быть больше нуля!");
             }
-            return itemRepository.searchAvailable(text, PageRequest.of(from / size, size));
+            int offset = from / size * size;
+            if (itemSearchProperties.getMode() == ItemSearchProperties.Mode.INDEX && itemSearchIndex.isLoaded()) {
+                return itemSearchProperties.isFuzzy()
+                        ? searchSimilarItems(text, offset, size)
+                        : itemSearchIndex.search(text, offset, size);
+            }
+            List<Integer> cachedIds = itemSearchCache.get(text, offset, size);
+            if (cachedIds != null) {
+                return findAllByIdInOrder(cachedIds);
+            }
+            long generation = itemSearchCache.generation();
+            List<Item> foundItems;
+            if (itemSearchProperties.isFuzzy() && itemSearchProperties.getMode() != ItemSearchProperties.Mode.LIKE) {
+                foundItems = searchSimilarItems(text, offset, size);
+            } else if (itemSearchProperties.getMode() == ItemSearchProperties.Mode.FULL_TEXT) {
+                foundItems = itemRepository.searchAvailableFullText(text, PageRequest.of(from / size, size));
+            } else {
+                foundItems = itemRepository.searchAvailable(text, PageRequest.of(from / size, size));
+            }
+            itemSearchCache.put(text, offset, size, foundItems.stream().map(Item::getId).collect(Collectors.toList()), generation);
+            return foundItems;
+        }
+    }
+
+    private List<Item> findAllByIdInOrder(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, it -> it));
+        return itemIds.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the requested page of the top fuzzyLimit items most similar to the text.
+     */
+    private List<Item> searchSimilarItems(String text, int offset, int size) {
+        int limit = Math.min(size, itemSearchProperties.getFuzzyLimit() - offset);
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (itemSearchProperties.getMode() == ItemSearchProperties.Mode.INDEX && itemSearchIndex.isLoaded()) {
+            return itemSearchIndex.searchSimilar(text, itemSearchProperties.getSimilarityThreshold(), offset, limit);
+        } else if (itemSearchProperties.getMode() == ItemSearchProperties.Mode.FULL_TEXT) {
+            itemRepository.setWordSimilarityThreshold(String.valueOf(itemSearchProperties.getSimilarityThreshold()));
+            List<Item> similar = itemRepository.searchAvailableSimilar(text, PageRequest.of(offset / size, size));
+            return similar.size() > limit ? new ArrayList<>(similar.subList(0, limit)) : similar;
+        }
+        return itemRepository.searchAvailable(text, PageRequest.of(offset / size, size));
+    }
+
+    @Override
+    @Transactional
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер должен быть больше нуля!");
+        }
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemNameSuggestions.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional
+    public List<Item> searchAvailableItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size) {
+        if (start == null && end == null) {
+            return searchAvailableItems(text, from, size);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Некорректное время начала/окончания периода поиска!");
+        }
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер должен быть больше нуля!");
+        }
+        return itemRepository.searchAvailableWithoutBookingsBetween(
+                text, start, end, ACTIVE_BOOKING_STATUSES, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    @Transactional
+    public ItemAvailability getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) throws ItemNotFoundException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания!");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(itemId);
+        }
+        List<TimeSlot> busy = new ArrayList<>();
+        List<TimeSlot> free = new ArrayList<>();
+        try (Stream<BookingInterval> intervals = bookingRepository
+                .streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(itemId, to, from, ACTIVE_BOOKING_STATUSES)) {
+            TimeSlot current = null;
+            LocalDateTime freeFrom = from;
+            Iterator<BookingInterval> iterator = intervals.iterator();
+            while (iterator.hasNext()) {
+                BookingInterval interval = iterator.next();
+                LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+                LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+                if (current != null && !start.isAfter(current.getEnd())) {
+                    if (end.isAfter(current.getEnd())) {
+                        current.setEnd(end);
+                    }
+                    continue;
+                }
+                if (current != null) {
+                    busy.add(current);
+                    freeFrom = current.getEnd();
+                }
+                if (start.isAfter(freeFrom)) {
+                    free.add(new TimeSlot(freeFrom, start));
+                }
+                current = new TimeSlot(start, end);
+            }
+            if (current != null) {
+                busy.add(current);
+                freeFrom = current.getEnd();
+            }
+            if (freeFrom.isBefore(to)) {
+                free.add(new TimeSlot(freeFrom, to));
+            }
+        }
+        return new ItemAvailability(itemId, from, to, busy, free);
+    }
+
+    @Override
+    @Transactional
+    public List<Comment> getComments(int itemId, Integer after, Integer size) throws ItemNotFoundException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер должен быть больше нуля!");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(itemId);
+        }
+        if (after == null) {
+            return commentRepository.findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, size));
         }
+        return commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, after, PageRequest.of(0, size));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.controller;
 
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -8,11 +9,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.mapper.ItemRequestCursorMapper;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -54,14 +59,35 @@ public class ItemRequestController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/matches")
+    public List<ItemRequestMatchDto> getMatches(
+            @RequestHeader("X-Sharer-User-Id") Integer requestorId,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemRequestService.getMatches(requestorId, from, size).stream()
+                .map(ItemRequestMapper::toItemRequestMatchDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Newest requests of other users; the next page is requested with the token from the X-Next-Cursor header.
+     */
     @GetMapping("/all")
     public List<ItemRequestDto> getAllRequests(
             @RequestHeader("X-Sharer-User-Id") Integer requestorId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String after,
+            HttpServletResponse response
     ) {
-        return itemRequestService.getAllRequests(requestorId, from, size)
-                .stream().map(ItemRequestMapper::toItemRequestDto)
+        Slice<ItemRequest> requests = itemRequestService.getAllRequests(
+                requestorId, ItemRequestCursorMapper.toItemRequestCursor(after), from, size);
+        if (requests.hasNext()) {
+            List<ItemRequest> content = requests.getContent();
+            response.setHeader(PagingHeaders.NEXT_CURSOR, ItemRequestCursorMapper.toToken(content.get(content.size() - 1)));
+        }
+        return requests.stream().map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
     }
 }
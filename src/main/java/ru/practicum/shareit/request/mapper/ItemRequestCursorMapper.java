@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class ItemRequestCursorMapper {
+    private static final String SEPARATOR = "|";
+
+    public static String toToken(ItemRequest itemRequest) {
+        if (itemRequest == null) {
+            return null;
+        }
+        String value = itemRequest.getCreated() + SEPARATOR + itemRequest.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemRequestCursor toItemRequestCursor(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new ItemRequestCursor(
+                    LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Integer.valueOf(value.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор страницы!");
+        }
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,20 +24,28 @@ public class ItemRequestMapper {
             );
             List<ItemDto> items = Collections.emptyList();
             if (itemRequest.getItems() != null) {
-                items = itemRequest.getItems().stream().map(it -> {
-                            Integer itemRequestId = null;
-                            if (it.getRequest() != null) {
-                                itemRequestId = it.getRequest().getId();
-                            }
-                            return new ItemDto(it.getId(), it.getName(), it.getDescription(), it.getAvailable(), itemRequestId);
-                        }
-                ).collect(Collectors.toList());
+                items = itemRequest.getItems().stream()
+                        .map(it -> new ItemDto(it.getId(), it.getName(), it.getDescription(), it.getAvailable(), it.getRequestId()))
+                        .collect(Collectors.toList());
             }
             itemRequestDto.setItems(items);
             return itemRequestDto;
         }
     }
 
+    public static ItemRequestMatchDto toItemRequestMatchDto(ItemRequestMatch match) {
+        if (match == null) {
+            return null;
+        } else {
+            return new ItemRequestMatchDto(
+                    match.getRequestId(),
+                    new ItemDto(match.getItemId(), match.getItemName(), match.getItemDescription(), true, null),
+                    match.getSharedWords(),
+                    match.getCreated()
+            );
+        }
+    }
+
     public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto) {
         if (itemRequestDto == null) {
             return null;
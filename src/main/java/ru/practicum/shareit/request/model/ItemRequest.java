@@ -3,10 +3,12 @@ package ru.practicum.shareit.request.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -23,15 +25,21 @@ import java.util.List;
 @Entity
 @Table(name = "requests")
 public class ItemRequest {
+    public static final int ITEMS_BATCH_SIZE = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "requestor_id")
     private User requestor;
     private LocalDateTime created;
+    /**
+     * Loaded for up to {@link #ITEMS_BATCH_SIZE} requests of the session at once, so a feed page costs one query.
+     */
     @OneToMany
     @JoinColumn(name = "request_id")
+    @BatchSize(size = ITEMS_BATCH_SIZE)
     private List<Item> items;
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemRequestMatch {
+    private Integer requestId;
+    private Integer itemId;
+    private String itemName;
+    private String itemDescription;
+    private int sharedWords;
+    private LocalDateTime created;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request that no item has answered yet, as loaded into {@link ru.practicum.shareit.request.repository.ItemRequestMatchIndex}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OpenItemRequest {
+    private Integer id;
+    private Integer requestorId;
+    private String description;
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.model.OpenItemRequest;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.common.TextWords.WORD_SEPARATOR;
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Words of open request descriptions mapped to request ids. Once the transaction that added an item commits,
+ * every open request of another user sharing a word with the item gets a candidate match, so requestors
+ * do not have to poll their requests. Matches are kept in memory only and are lost on restart; at most
+ * {@code maxRequestors} requestors keep their matches, the one matched or read least recently is dropped first.
+ */
+@Component
+public class ItemRequestMatchIndex {
+    static final int MAX_MATCHES_PER_REQUESTOR = 100;
+    private static final int MIN_WORD_LENGTH = 5;
+    private static final int STEM_LENGTH = 4;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final int maxRequestors;
+    private final Map<Integer, OpenItemRequest> openRequests = new HashMap<>();
+    private final Map<Integer, Set<String>> wordsByRequestId = new HashMap<>();
+    private final Map<String, Set<Integer>> requestIdsByWord = new HashMap<>();
+    private final Map<Integer, Deque<ItemRequestMatch>> matchesByRequestorId = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ItemRequestMatchIndex(ItemRequestRepository itemRequestRepository,
+                                 @Value("${shareit.request.matches.max-requestors:10000}") int maxRequestors) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.maxRequestors = maxRequestors;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void build() {
+        openRequests.clear();
+        wordsByRequestId.clear();
+        requestIdsByWord.clear();
+        try (Stream<OpenItemRequest> requests = itemRequestRepository.streamOpenRequests()) {
+            requests.forEach(this::put);
+        }
+    }
+
+    public void add(ItemRequest itemRequest) {
+        if (itemRequest == null || itemRequest.getId() == null || itemRequest.getRequestor() == null) {
+            return;
+        }
+        OpenItemRequest request = new OpenItemRequest(
+                itemRequest.getId(), itemRequest.getRequestor().getId(), itemRequest.getDescription());
+        afterCommit(() -> {
+            synchronized (this) {
+                put(request);
+            }
+        });
+    }
+
+    /**
+     * Closes the request the item answers and records a match for every other open request it could answer.
+     */
+    public void match(Item item) {
+        if (item == null || item.getId() == null || item.getOwner() == null) {
+            return;
+        }
+        int ownerId = item.getOwner().getId();
+        Integer requestId = item.getRequestId();
+        ItemRequestMatch template = new ItemRequestMatch(
+                null, item.getId(), item.getName(), item.getDescription(), 0, LocalDateTime.now());
+        Set<String> words = Boolean.TRUE.equals(item.getAvailable())
+                ? words(item.getName(), item.getDescription())
+                : Set.of();
+        afterCommit(() -> record(ownerId, requestId, words, template));
+    }
+
+    /**
+     * Returns the requestor's matches, newest first.
+     */
+    public synchronized List<ItemRequestMatch> getMatches(int requestorId, int from, int size) {
+        return matchesByRequestorId.getOrDefault(requestorId, new ArrayDeque<>()).stream()
+                .skip(from)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void record(int ownerId, Integer requestId, Set<String> words, ItemRequestMatch template) {
+        if (requestId != null) {
+            remove(requestId);
+        }
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String word : words) {
+            for (Integer id : requestIdsByWord.getOrDefault(word, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+        shared.entrySet().stream()
+                .filter(e -> openRequests.get(e.getKey()).getRequestorId() != ownerId)
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(e -> {
+                    Deque<ItemRequestMatch> matches = matchesByRequestorId.computeIfAbsent(
+                            openRequests.get(e.getKey()).getRequestorId(), k -> new ArrayDeque<>());
+                    matches.addFirst(new ItemRequestMatch(e.getKey(), template.getItemId(), template.getItemName(),
+                            template.getItemDescription(), e.getValue(), template.getCreated()));
+                    if (matches.size() > MAX_MATCHES_PER_REQUESTOR) {
+                        matches.removeLast();
+                    }
+                });
+        Iterator<Integer> eldest = matchesByRequestorId.keySet().iterator();
+        while (matchesByRequestorId.size() > maxRequestors) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void put(OpenItemRequest request) {
+        remove(request.getId());
+        Set<String> words = words(request.getDescription());
+        openRequests.put(request.getId(), request);
+        wordsByRequestId.put(request.getId(), words);
+        words.forEach(word -> requestIdsByWord.computeIfAbsent(word, k -> new HashSet<>()).add(request.getId()));
+    }
+
+    private void remove(int requestId) {
+        openRequests.remove(requestId);
+        Set<String> words = wordsByRequestId.remove(requestId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<Integer> ids = requestIdsByWord.get(word);
+            if (ids != null && ids.remove(requestId) && ids.isEmpty()) {
+                requestIdsByWord.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Upper-cased words of at least five characters cut to four, a crude stem that lets "дрель" match "дрели".
+     * Shorter words are skipped: their three-letter stems made unrelated words like "лист" and "лиса" match.
+     */
+    static Set<String> words(String... texts) {
+        Set<String> words = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : WORD_SEPARATOR.split(text.toUpperCase(Locale.ROOT))) {
+                if (word.length() >= MIN_WORD_LENGTH) {
+                    words.add(word.substring(0, STEM_LENGTH));
+                }
+            }
+        }
+        return words;
+    }
+}
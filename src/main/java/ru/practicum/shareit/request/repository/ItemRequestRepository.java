@@ -1,16 +1,38 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.OpenItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(int requestorId);
 
-    Page<ItemRequest> findByRequestorIdNot(int requestorId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "ORDER BY r.created DESC, r.id DESC")
+    Slice<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(int requestorId, Pageable pageable);
+
+    /**
+     * Requests of other users strictly after the (created, id) cursor in the feed order; pageable should start at 0.
+     * The redundant upper bound on created lets the (created, id) index serve the range.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "AND r.created <= ?2 AND (r.created < ?2 OR r.id < ?3) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    Slice<ItemRequest> findByRequestorIdNotAfter(int requestorId, LocalDateTime created, int id, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.model.OpenItemRequest(r.id, r.requestor.id, r.description) " +
+            "FROM ItemRequest r " +
+            "WHERE NOT EXISTS (SELECT i.id FROM Item i WHERE i.requestId = r.id)")
+    Stream<OpenItemRequest> streamOpenRequests();
 }
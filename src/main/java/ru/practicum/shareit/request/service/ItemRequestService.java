@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestCursor;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.util.List;
@@ -11,7 +14,15 @@ public interface ItemRequestService {
 
     ItemRequest getRequest(Integer requestId, Integer requestorId) throws UserNotFoundException, ItemRequestNotFoundException;
 
-    List<ItemRequest> getAllRequests(Integer requestorId, Integer from, Integer size);
+    /**
+     * Requests of other users, newest first: after the cursor when it is given, from the offset otherwise.
+     */
+    Slice<ItemRequest> getAllRequests(Integer requestorId, ItemRequestCursor after, Integer from, Integer size);
 
     List<ItemRequest> getAllRequestsByRequestorId(Integer requestorId);
+
+    /**
+     * Items added by other users that may answer the requestor's open requests, newest first.
+     */
+    List<ItemRequestMatch> getMatches(Integer requestorId, Integer from, Integer size);
 }
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestCursor;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestMatchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -18,10 +21,13 @@ import java.util.List;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchIndex itemRequestMatchIndex;
 
-    public ItemRequestServiceImpl(UserRepository userRepository, ItemRequestRepository itemRequestRepository) {
+    public ItemRequestServiceImpl(UserRepository userRepository, ItemRequestRepository itemRequestRepository,
+                                  ItemRequestMatchIndex itemRequestMatchIndex) {
         this.userRepository = userRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemRequestMatchIndex = itemRequestMatchIndex;
     }
 
     @Override
@@ -30,7 +36,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User requestor = userRepository.findById(requestorId).orElseThrow(() -> new UserNotFoundException(requestorId));
         itemRequest.setRequestor(requestor);
         itemRequest.setCreated(LocalDateTime.now());
-        return itemRequestRepository.save(itemRequest);
+        ItemRequest savedItemRequest = itemRequestRepository.save(itemRequest);
+        itemRequestMatchIndex.add(savedItemRequest);
+        return savedItemRequest;
     }
 
     @Override
@@ -40,9 +48,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequest> getAllRequests(Integer requestorId, Integer from, Integer size) {
-        return itemRequestRepository.findByRequestorIdNot(requestorId,
-                PageRequest.of(from, size, Sort.by("created").descending())).getContent();
+    public Slice<ItemRequest> getAllRequests(Integer requestorId, ItemRequestCursor after, Integer from, Integer size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер должен быть больше нуля!");
+        }
+        if (after != null) {
+            return itemRequestRepository.findByRequestorIdNotAfter(
+                    requestorId, after.getCreated(), after.getId(), PageRequest.of(0, size));
+        }
+        return itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(requestorId, PageRequest.of(from / size, size));
     }
 
     @Override
@@ -50,4 +64,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userRepository.findById(requestorId).orElseThrow(() -> new UserNotFoundException(requestorId));
         return itemRequestRepository.findByRequestorIdOrderByCreatedDesc(requestorId);
     }
+
+    @Override
+    public List<ItemRequestMatch> getMatches(Integer requestorId, Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new IllegalArgumentException("Неверные параметры страницы!");
+        }
+        userRepository.findById(requestorId).orElseThrow(() -> new UserNotFoundException(requestorId));
+        return itemRequestMatchIndex.getMatches(requestorId, from, size);
+    }
 }
@@ -1,6 +1,10 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -8,24 +12,41 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Duration exportTimeout;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper,
+                          @Value("${shareit.users.export-timeout:1h}") Duration exportTimeout) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.exportTimeout = exportTimeout;
     }
 
     @PostMapping
@@ -49,9 +70,55 @@ public class UserController {
         return UserMapper.toUserDto(userService.getUserById(userId));
     }
 
+    /**
+     * Users ordered by id. Without {@code after} and {@code size} all users are returned, as before paging was added;
+     * otherwise a page of {@code size} users (100 by default) is returned and the next one is requested with the id
+     * from the X-Next-Cursor header as {@code after}.
+     */
     @GetMapping
-    public List<UserDto> detAllUsers() {
-        return userService.getAllUsers().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+    public List<UserDto> getUsers(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer size,
+            HttpServletResponse response
+    ) {
+        if (after == null && size == null) {
+            List<UserDto> users = new ArrayList<>();
+            userService.exportUsers(user -> users.add(UserMapper.toUserDto(user)));
+            return users;
+        }
+        Slice<User> users = userService.getUsers(after, size == null ? DEFAULT_PAGE_SIZE : size);
+        if (users.hasNext()) {
+            List<User> content = users.getContent();
+            response.setHeader(PagingHeaders.NEXT_CURSOR, String.valueOf(content.get(content.size() - 1).getId()));
+        }
+        return users.stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+    }
+
+    /**
+     * All users as newline-delimited JSON, written to the response while they are read from the database.
+     * Runs under its own async timeout instead of the container default, which would cut a large export short.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            OutputStream out = new BufferedOutputStream(response.getOutputStream());
+            try {
+                userService.exportUsers(user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(UserMapper.toUserDto(user)));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            return null;
+        });
     }
 
 }
@@ -1,9 +1,26 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
-}
\ No newline at end of file
+    Slice<User> findAllByOrderById(Pageable pageable);
+
+    Slice<User> findByIdGreaterThanOrderById(int id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "256"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+}
@@ -1,9 +1,10 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User addUser(User user);
@@ -12,7 +13,15 @@ public interface UserService {
 
     void deleteUser(Integer userId) throws UserNotFoundException;
 
-    List<User> getAllUsers();
+    /**
+     * Users ordered by id, starting after the given id when it is not null.
+     */
+    Slice<User> getUsers(Integer afterId, Integer size);
+
+    /**
+     * Passes every user to the consumer in id order without keeping them in memory; runs in one read-only transaction.
+     */
+    void exportUsers(Consumer<User> consumer);
 
     User getUserById(Integer id) throws UserNotFoundException;
 }
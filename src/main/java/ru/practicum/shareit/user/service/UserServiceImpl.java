@@ -1,20 +1,32 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
-import java.util.List;
+import javax.persistence.EntityManager;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ItemBookingPointers itemBookingPointers;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    public UserServiceImpl(UserRepository userRepository, EntityManager entityManager,
+                           ItemBookingPointers itemBookingPointers) {
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.itemBookingPointers = itemBookingPointers;
     }
 
     @Override
@@ -32,6 +44,7 @@ public class UserServiceImpl implements UserService {
         if (user.getName() != null) {
             userToUpdate.setName(user.getName());
         }
+        itemBookingPointers.evictBooker(userToUpdate.getId());
         return userRepository.save(userToUpdate);
     }
 
@@ -43,8 +56,25 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Slice<User> getUsers(Integer afterId, Integer size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + "!");
+        }
+        PageRequest pageRequest = PageRequest.of(0, size);
+        return afterId == null
+                ? userRepository.findAllByOrderById(pageRequest)
+                : userRepository.findByIdGreaterThanOrderById(afterId, pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
     }
 
     @Override
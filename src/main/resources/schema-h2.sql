@@ -0,0 +1,11 @@
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap CHECK (
+    status NOT IN ('WAITING', 'APPROVED')
+    OR NOT EXISTS (
+        SELECT 1 FROM bookings other
+        WHERE other.item_id = bookings.item_id
+        AND other.id <> bookings.id
+        AND other.status IN ('WAITING', 'APPROVED')
+        AND other.start_date < bookings.end_date
+        AND other.end_date > bookings.start_date
+    )
+);
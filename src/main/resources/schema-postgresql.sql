@@ -0,0 +1,19 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS booked_range TSRANGE
+    GENERATED ALWAYS AS (tsrange(start_date, end_date)) STORED;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (item_id WITH =, booked_range WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_items_search ON items USING gin (search_vector);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (coalesce(name, '') || ' ' || coalesce(description, '')) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_trgm ON items USING gin (search_text gin_trgm_ops);
@@ -46,6 +46,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT status_in_enum CHECK (status::text IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED'))
 );
 
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text CHARACTER VARYING NOT NULL,
@@ -57,9 +58,15 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
 
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_end ON bookings (item_id, booker_id, end_date);
 
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id, id);
 
-
-
-
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS ix_requests_created_id ON requests (created, id);
@@ -0,0 +1,186 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the statements issued by every repository method and fails when a table is read with a full scan.
+ * New repository methods should get a case here together with the index that serves them.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$StatementCollector")
+class QueryPlanTest {
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+    private static final List<Status> ACTIVE = List.of(Status.WAITING, Status.APPROVED);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        StatementCollector.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookerBookingQueriesShouldUseIndexesTest() {
+        bookingRepository.findViewPageByBookerId(1, State.CURRENT, NOW, null, 10, 10);
+        assertNoTableScans();
+    }
+
+    @Test
+    void ownerBookingQueriesShouldUseIndexesTest() {
+        bookingRepository.findViewPageByItemOwnerId(1, State.PAST, NOW, new BookingCursor(NOW, 1), 0, 10);
+        bookingRepository.findOwnersByIdIn(List.of(1, 2));
+        bookingRepository.findIdsByIdInAndStatusForUpdate(List.of(1, 2), Status.WAITING);
+        bookingRepository.findAllByIdInAndStatus(List.of(1, 2), Status.APPROVED);
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemBookingQueriesShouldUseIndexesTest() {
+        bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(1, NOW, ACTIVE);
+        bookingRepository.findIntervalsByItemIdInAndStartIsBeforeAndEndIsAfterAndStatusIn(List.of(1, 2), NOW, NOW, ACTIVE);
+        try (Stream<?> intervals = bookingRepository.streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(1, NOW, NOW, ACTIVE)) {
+            intervals.forEach(interval -> { });
+        }
+        bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(1, NOW, NOW, ACTIVE);
+        bookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(List.of(1, 2), 1, NOW, ACTIVE);
+        bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(List.of(1, 2), 1, NOW, ACTIVE);
+        bookingRepository.findFirstByItemIdAndBookerIdAndEndIsBefore(1, 1, NOW);
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemQueriesShouldUseIndexesTest() {
+        itemRepository.findByOwnerId(1, PAGE);
+        itemRepository.existsByOwnerId(1);
+        itemRepository.findAllWithOwnerByIdIn(List.of(1, 2));
+        assertNoTableScans();
+    }
+
+    @Test
+    void searchShouldScanOnlyItemsTest() {
+        itemRepository.searchAvailable("text", PAGE);
+        itemRepository.searchAvailableWithoutBookingsBetween("text", NOW, NOW, ACTIVE, PAGE);
+        try (Stream<?> entries = itemRepository.streamSearchEntries()) {
+            entries.forEach(entry -> { });
+        }
+        assertNoTableScans("ITEMS");
+    }
+
+    @Test
+    void commentQueriesShouldUseIndexesTest() {
+        commentRepository.findLatestByItemIdIn(List.of(1, 2), 10);
+        commentRepository.findAllByIdInOrderByIdDesc(List.of(1, 2));
+        commentRepository.findByItemIdOrderByIdDesc(1, PAGE);
+        commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(1, 10, PAGE);
+        assertNoTableScans();
+    }
+
+    @Test
+    void requestQueriesShouldUseIndexesTest() {
+        itemRequestRepository.findByRequestorIdOrderByCreatedDesc(1);
+        assertNoTableScans();
+    }
+
+    @Test
+    void otherUsersRequestsAfterCursorShouldUseIndexesTest() {
+        itemRequestRepository.findByRequestorIdNotAfter(1, NOW, 1, PAGE);
+        assertNoTableScans();
+    }
+
+    @Test
+    void otherUsersRequestsShouldScanOnlyRequestsTest() {
+        itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(1, PAGE);
+        assertNoTableScans("REQUESTS");
+    }
+
+    @Test
+    void openRequestsShouldScanOnlyRequestsTest() {
+        try (Stream<?> requests = itemRequestRepository.streamOpenRequests()) {
+            requests.forEach(request -> { });
+        }
+        assertNoTableScans("REQUESTS");
+    }
+
+    @Test
+    void userQueriesShouldUseIndexesTest() {
+        userRepository.findByIdGreaterThanOrderById(1, PAGE);
+        assertNoTableScans();
+    }
+
+    @Test
+    void userExportShouldScanOnlyUsersTest() {
+        userRepository.findAllByOrderById(PAGE);
+        try (Stream<?> users = userRepository.streamAll()) {
+            users.forEach(user -> { });
+        }
+        assertNoTableScans("USERS");
+    }
+
+    private void assertNoTableScans(String... allowedTables) {
+        Set<String> allowed = Set.of(allowedTables);
+        List<String> statements = new ArrayList<>(StatementCollector.STATEMENTS);
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                assertTrue(allowed.contains(matcher.group(1)), "Полный просмотр таблицы " + matcher.group(1) + ":\n" + plan);
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, Collections.nCopies(parameters, null).toArray());
+    }
+
+    public static class StatementCollector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
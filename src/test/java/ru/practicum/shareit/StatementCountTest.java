@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the statements issued per endpoint over a page of ten bookings with distinct items and bookers.
+ * The counts must not depend on the page size.
+ */
+@SpringBootTest
+@Transactional
+class StatementCountTest {
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User requestor;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void beforeEach() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        owner = persistUser("owner");
+        requestor = persistUser("requestor");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User booker = persistUser("booker" + i);
+            ItemRequest request = new ItemRequest(null, "request" + i, requestor, now.minusDays(3).plusMinutes(i), null);
+            entityManager.persist(request);
+            Item item = new Item(null, "item" + i, "description" + i, true, owner, null, request);
+            entityManager.persist(item);
+            Booking past = new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Status.APPROVED);
+            Booking future = new Booking(null, now.plusDays(1), now.plusDays(2), item, bookers.isEmpty() ? booker : bookers.get(0), Status.WAITING);
+            entityManager.persist(past);
+            entityManager.persist(future);
+            entityManager.persist(new Comment(null, "comment" + i, item, booker, now.minusHours(12)));
+            bookers.add(booker);
+            items.add(item);
+            bookings.add(past);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookerBookingsTest() throws Exception {
+        assertStatements(1, get("/bookings?state=PAST&size=" + PAGE_SIZE), bookers.get(0), 1);
+        assertStatements(1, get("/bookings?state=FUTURE&size=" + PAGE_SIZE), bookers.get(0), PAGE_SIZE);
+    }
+
+    @Test
+    void ownerBookingsTest() throws Exception {
+        assertStatements(1, get("/bookings/owner?state=PAST&size=" + PAGE_SIZE), owner, PAGE_SIZE);
+    }
+
+    @Test
+    void bookingDetailTest() throws Exception {
+        assertStatements(1, get("/bookings/" + bookings.get(3).getId()), owner, null);
+    }
+
+    @Test
+    void ownerItemsTest() throws Exception {
+        assertStatements(6, get("/items?size=" + PAGE_SIZE), owner, PAGE_SIZE);
+    }
+
+    @Test
+    void ownerItemDetailTest() throws Exception {
+        assertStatements(6, get("/items/" + items.get(3).getId()), owner, null);
+    }
+
+    @Test
+    void otherUsersRequestsTest() throws Exception {
+        assertStatements(2, get("/requests/all?from=0&size=" + PAGE_SIZE), owner, PAGE_SIZE);
+    }
+
+    @Test
+    void ownRequestsTest() throws Exception {
+        assertStatements(3, get("/requests"), requestor, PAGE_SIZE);
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request, User user, Integer length) throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request.header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+        if (length != null) {
+            result.andExpect(jsonPath("$.length()").value(length));
+        }
+        long count = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        assertEquals(expected, count);
+    }
+
+    private User persistUser(String name) {
+        User user = new User(null, name, name + "@mail.ru");
+        entityManager.persist(user);
+        return user;
+    }
+}
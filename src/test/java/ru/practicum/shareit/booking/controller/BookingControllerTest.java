@@ -12,14 +12,20 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.InvalidBookingStatusException;
 import ru.practicum.shareit.booking.exception.UnsupportedStatusException;
+import ru.practicum.shareit.booking.mapper.BookingCursorMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.error.exception.ForbiddenException;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 
@@ -30,10 +36,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -50,12 +62,17 @@ class BookingControllerTest {
     private BookingService bookingService;
 
     private Booking booking;
+    private BookingView bookingView;
 
     @BeforeEach
     void beforeEach() {
         booking = generator.nextObject(Booking.class);
         booking.setStart(LocalDateTime.now().plusHours(1));
         booking.setEnd(LocalDateTime.now().plusDays(1));
+        bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().getAvailable(), booking.getItem().getRequestId(),
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail(), booking.getStatus());
     }
 
     @Test
@@ -181,7 +198,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsOfUserByStateTest() throws Exception {
-        when(bookingService.getAllBookingsOfUserByState(anyInt(), any(State.class), anyInt(), anyInt())).thenReturn(List.of(booking));
+        when(bookingService.getBookingViewsOfUser(anyInt(), any(State.class), isNull(), anyInt(), anyInt())).thenReturn(List.of(bookingView));
         MvcResult result = mockMvc.perform(get("/bookings")
                         .param("state", State.ALL.name())
                         .header("X-Sharer-User-Id", 1))
@@ -196,7 +213,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsOfUserItemsTest() throws Exception {
-        when(bookingService.getAllBookingsOfUserItems(anyInt(), any(State.class), anyInt(), anyInt())).thenReturn(List.of(booking));
+        when(bookingService.getBookingViewsOfUserItems(anyInt(), any(State.class), isNull(), anyInt(), anyInt())).thenReturn(List.of(bookingView));
         MvcResult result = mockMvc.perform(get("/bookings/owner")
                         .param("state", State.ALL.name())
                         .header("X-Sharer-User-Id", 1))
@@ -208,4 +225,98 @@ class BookingControllerTest {
         assertEquals(booking.getBooker().getId(), response.get(0).getBooker().getId());
         assertEquals(booking.getItem().getId(), response.get(0).getItem().getId());
     }
+
+    @Test
+    void getAllBookingsOfUserByStateShouldReturnNextCursorForFullPageTest() throws Exception {
+        when(bookingService.getBookingViewsOfUser(anyInt(), any(State.class), isNull(), anyInt(), anyInt())).thenReturn(List.of(bookingView));
+        mockMvc.perform(get("/bookings")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PagingHeaders.NEXT_CURSOR, BookingCursorMapper.toToken(booking)));
+    }
+
+    @Test
+    void getAllBookingsOfUserItemsAfterCursorTest() throws Exception {
+        BookingCursor cursor = new BookingCursor(booking.getStart(), booking.getId());
+        when(bookingService.getBookingViewsOfUserItems(anyInt(), any(State.class), eq(cursor), anyInt(), anyInt())).thenReturn(List.of(bookingView));
+        mockMvc.perform(get("/bookings/owner")
+                        .param("after", BookingCursorMapper.toToken(booking))
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(booking.getId()))
+                .andExpect(header().doesNotExist(PagingHeaders.NEXT_CURSOR));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidCursorTest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .param("after", "not a cursor")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void addBookingsTest() throws Exception {
+        when(bookingService.addBookings(anyList(), anyInt()))
+                .thenReturn(List.of(new BookingBatchResult(booking, null), new BookingBatchResult(null, "error")));
+        BookingDto reqBookingDto = new BookingDto(null, booking.getStart(), booking.getEnd(), null, booking.getItem().getId(), null, null, null);
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(reqBookingDto, reqBookingDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(booking.getId()))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].booking").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("error"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenAddBookingsWithNullEntryTest() throws Exception {
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content("[null]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).addBookings(anyList(), anyInt());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenAddBookingsWithoutTimesTest() throws Exception {
+        BookingDto reqBookingDto = new BookingDto(null, null, null, null, booking.getItem().getId(), null, null, null);
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(reqBookingDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).addBookings(anyList(), anyInt());
+    }
+
+    @Test
+    void approveBookingsTest() throws Exception {
+        booking.setStatus(Status.APPROVED);
+        when(bookingService.approveBookings(eq(List.of(booking.getId())), anyInt(), eq(true))).thenReturn(List.of(booking));
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(new BookingApprovalDto(List.of(booking.getId()), true)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(booking.getId()))
+                .andExpect(jsonPath("$[0].status").value(Status.APPROVED.name()));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenApproveBookingsWithoutIdsTest() throws Exception {
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(new BookingApprovalDto(List.of(), true)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
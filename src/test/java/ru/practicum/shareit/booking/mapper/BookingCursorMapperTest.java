@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookingCursorMapperTest {
+    @Test
+    void tokenShouldRoundTripTest() {
+        Booking booking = new Booking(42, LocalDateTime.of(2030, 1, 2, 3, 4, 5, 600_000), null, null, null, null);
+        BookingCursor cursor = BookingCursorMapper.toBookingCursor(BookingCursorMapper.toToken(booking));
+        assertEquals(new BookingCursor(booking.getStart(), booking.getId()), cursor);
+    }
+
+    @Test
+    void nullValuesTest() {
+        assertNull(BookingCursorMapper.toToken((Booking) null));
+        assertNull(BookingCursorMapper.toBookingCursor(null));
+    }
+
+    @Test
+    void invalidTokenShouldThrowIllegalArgumentExceptionTest() {
+        assertThrows(IllegalArgumentException.class, () -> BookingCursorMapper.toBookingCursor("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> BookingCursorMapper.toBookingCursor("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> BookingCursorMapper.toBookingCursor("eHx5"));
+    }
+}
@@ -1,13 +1,14 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
 
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class BookingMapperTest {
     @Test
     void toBookingNullDto() {
-        assertNull(BookingMapper.toBookingDto(null));
+        assertNull(BookingMapper.toBookingDto((Booking) null));
     }
 
     @Test
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityIndexTest {
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingAvailabilityIndex index = new BookingAvailabilityIndex(bookingRepository);
+
+    private final Item item = new Item(1, "name", "description", true, null, null, null);
+    private LocalDateTime start;
+
+    @BeforeEach
+    void beforeEach() {
+        start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(
+                        new BookingInterval(1, 1, start, start.plusHours(2)),
+                        new BookingInterval(2, 1, start.plusHours(5), start.plusHours(6))
+                ));
+    }
+
+    @Test
+    void isFreeShouldDetectPartialAndContainingOverlapsTest() {
+        assertFalse(index.isFree(item.getId(), start.plusHours(1), start.plusHours(3)));
+        assertFalse(index.isFree(item.getId(), start.minusHours(1), start.plusHours(7)));
+        assertFalse(index.isFree(item.getId(), start.plusMinutes(10), start.plusMinutes(20)));
+        assertTrue(index.isFree(item.getId(), start.plusHours(2), start.plusHours(5)));
+        assertTrue(index.isFree(item.getId(), start.minusHours(1), start));
+        verify(bookingRepository, times(1))
+                .findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList());
+    }
+
+    @Test
+    void isFreeShouldRequireConfirmationForPastIntervalsTest() {
+        assertFalse(index.isFree(item.getId(), LocalDateTime.now().minusDays(1), LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    void updateShouldAddAndRemoveBookingsTest() {
+        Booking booking = new Booking(3, start.plusHours(3), start.plusHours(4), item, null, Status.WAITING);
+        assertTrue(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+        index.update(booking);
+        assertFalse(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+        booking.setStatus(Status.REJECTED);
+        index.update(booking);
+        assertTrue(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+    }
+
+    @Test
+    void removeShouldSplitMergedSlotTest() {
+        index.isFree(item.getId(), start, start.plusHours(1));
+        Booking bridge = new Booking(3, start.plusHours(1), start.plusHours(5).plusMinutes(30), item, null, Status.WAITING);
+        index.update(bridge);
+        assertFalse(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+        bridge.setStatus(Status.CANCELED);
+        index.update(bridge);
+        assertTrue(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+        assertFalse(index.isFree(item.getId(), start.plusHours(1), start.plusHours(3)));
+        assertFalse(index.isFree(item.getId(), start.plusHours(4), start.plusHours(5).plusMinutes(10)));
+    }
+
+    @Test
+    void evictShouldReloadScheduleTest() {
+        index.isFree(item.getId(), start, start.plusHours(1));
+        index.evict(item.getId());
+        index.isFree(item.getId(), start, start.plusHours(1));
+        verify(bookingRepository, times(2))
+                .findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList());
+    }
+
+    @Test
+    void updateCommittedDuringLoadShouldBeKeptTest() {
+        Booking booking = new Booking(3, start.plusHours(3), start.plusHours(4), item, null, Status.WAITING);
+        when(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList()))
+                .thenAnswer(invocation -> {
+                    assertFalse(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+                    index.update(booking);
+                    return List.of(new BookingInterval(1, 1, start, start.plusHours(2)));
+                });
+        assertFalse(index.isFree(item.getId(), start.plusHours(3), start.plusHours(4)));
+        assertTrue(index.isFree(item.getId(), start.plusHours(2), start.plusHours(3)));
+    }
+}
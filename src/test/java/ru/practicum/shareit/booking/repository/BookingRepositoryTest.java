@@ -1,23 +1,35 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingOwner;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BookingRepositoryTest {
     @Autowired
     private TestEntityManager testEntityManager;
@@ -48,75 +60,92 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescTest() {
-        buildBooking(LocalDateTime.now().plusMinutes(2), LocalDateTime.now().plusHours(1), Status.WAITING);
+    void findViewPageByBookerIdCurrentTest() {
+        buildBooking(LocalDateTime.now().plusHours(2), LocalDateTime.now().plusHours(3), Status.WAITING);
         Booking savedBooking = buildBooking(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(booker.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByBookerId(booker.getId(), State.CURRENT, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
     }
 
     @Test
-    void findAllByBookerIdAndStartAfterOrderByStartDescTest() {
-        buildBooking(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
+    void findViewPageByBookerIdFutureTest() {
+        buildBooking(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(1), Status.WAITING);
         Booking savedBooking = buildBooking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(booker.getId(), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByBookerId(booker.getId(), State.FUTURE, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
     }
 
     @Test
-    void findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescTest() {
+    void findViewPageByBookerIdPastTest() {
         buildBooking(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
-        Booking savedBooking = buildBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().minusMinutes(1), Status.WAITING);
+        Booking savedBooking = buildBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().minusMinutes(2), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(booker.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByBookerId(booker.getId(), State.PAST, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
     }
 
     @Test
-    void findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDescTest() {
+    void findViewPageByItemOwnerIdCurrentTest() {
         buildBooking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
-        Booking savedBooking = buildBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusMinutes(1), Status.WAITING);
+        Booking savedBooking = buildBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusSeconds(30), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(List.of(item.getId()), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.CURRENT, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
 
     }
 
     @Test
-    void findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDescTest() {
+    void findViewPageByItemOwnerIdPastTest() {
         buildBooking(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
-        Booking savedBooking = buildBooking(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(1), Status.WAITING);
+        Booking savedBooking = buildBooking(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(2), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(List.of(item.getId()), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.PAST, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
     }
 
     @Test
-    void findAllByItemIdInAndStartAfterOrderByStartDescTest() {
-        buildBooking(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
+    void findViewPageByItemOwnerIdFutureTest() {
+        buildBooking(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(1), Status.WAITING);
         Booking savedBooking = buildBooking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusHours(1), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(List.of(item.getId()), LocalDateTime.now(), Pageable.unpaged());
+        List<BookingView> foundBookings = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.FUTURE, LocalDateTime.now(), null, 0, 10);
         assertEquals(1, foundBookings.size());
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
 
     }
 
     @Test
-    void findAllByItemIdAndStartBetweenAndEndBetweenTest() {
-        buildBooking(LocalDateTime.now().minusHours(2), LocalDateTime.now().minusHours(1).minusMinutes(1), Status.WAITING);
+    void findIntervalsByItemIdAndEndIsAfterAndStatusInTest() {
+        buildBooking(LocalDateTime.now().minusHours(2), LocalDateTime.now().minusHours(1), Status.APPROVED);
+        buildBooking(LocalDateTime.now().plusHours(2), LocalDateTime.now().plusHours(3), Status.REJECTED);
         Booking savedBooking = buildBooking(LocalDateTime.now().plusHours(1), LocalDateTime.now().plusDays(1), Status.WAITING);
         testEntityManager.flush();
-        List<Booking> foundBookings = bookingRepository.findAllByItemIdAndStartBetweenAndEndBetween(item.getId(), LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1));
-        assertEquals(1, foundBookings.size());
-        assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
+        List<BookingInterval> foundIntervals = bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(
+                item.getId(), LocalDateTime.now(), List.of(Status.WAITING, Status.APPROVED));
+        assertEquals(1, foundIntervals.size());
+        assertEquals(savedBooking.getId(), foundIntervals.get(0).getId());
+    }
+
+    @Test
+    void existsByItemIdAndStartBeforeAndEndAfterAndStatusInTest() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        buildBooking(start.minusHours(1), start.plusHours(3), Status.WAITING);
+        buildBooking(start.plusHours(5), start.plusHours(6), Status.REJECTED);
+        testEntityManager.flush();
+        List<Status> statuses = List.of(Status.WAITING, Status.APPROVED);
+        assertTrue(bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                item.getId(), start.plusHours(2), start, statuses));
+        assertFalse(bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                item.getId(), start.plusHours(6), start.plusHours(4), statuses));
+        assertFalse(bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                item.getId(), start.plusHours(4), start.plusHours(3), statuses));
     }
 
     @Test
@@ -140,4 +169,147 @@ class BookingRepositoryTest {
         assertEquals(savedBooking.getId(), foundBookings.get(0).getId());
     }
 
+    @Test
+    void lastAndNextShouldReturnOneBookingPerItemTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item otherItem = testEntityManager.persist(new Item(null, "other", "other", true, owner, null, null));
+        List<Booking> bookings = new ArrayList<>();
+        for (Item bookedItem : List.of(item, otherItem)) {
+            for (int i = 1; i <= 3; i++) {
+                bookings.add(new Booking(null, now.minusDays(i), now.minusDays(i).plusHours(1), bookedItem, booker, Status.APPROVED));
+                bookings.add(new Booking(null, now.plusDays(i), now.plusDays(i).plusHours(1), bookedItem, booker, Status.WAITING));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        testEntityManager.flush();
+        List<Integer> itemIds = List.of(item.getId(), otherItem.getId());
+        List<Status> statuses = List.of(Status.REJECTED, Status.CANCELED);
+
+        List<Booking> last = bookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(itemIds, owner.getId(), now, statuses);
+        assertEquals(2, last.size());
+        assertTrue(last.stream().allMatch(b -> b.getStart().equals(now.minusDays(1))));
+        assertEquals(2, last.stream().map(b -> b.getItem().getId()).distinct().count());
+
+        List<Booking> next = bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(itemIds, owner.getId(), now, statuses);
+        assertEquals(2, next.size());
+        assertTrue(next.stream().allMatch(b -> b.getStart().equals(now.plusDays(1))));
+        assertEquals(2, next.stream().map(b -> b.getItem().getId()).distinct().count());
+    }
+
+    @Test
+    void findViewPageByBookerIdShouldContinueAfterCursorTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = buildBooking(start, start.plusHours(1), Status.WAITING);
+        Booking second = buildBooking(start.plusHours(2), start.plusHours(3), Status.WAITING);
+        Booking third = buildBooking(start.plusHours(4), start.plusHours(5), Status.REJECTED);
+        testEntityManager.flush();
+
+        List<BookingView> firstPage = bookingRepository.findViewPageByBookerId(booker.getId(), State.ALL, LocalDateTime.now(), null, 0, 2);
+        assertEquals(List.of(third.getId(), second.getId()), firstPage.stream().map(BookingView::getId).collect(Collectors.toList()));
+
+        BookingCursor cursor = new BookingCursor(second.getStart(), second.getId());
+        List<BookingView> secondPage = bookingRepository.findViewPageByBookerId(booker.getId(), State.ALL, LocalDateTime.now(), cursor, 0, 2);
+        assertEquals(List.of(first.getId()), secondPage.stream().map(BookingView::getId).collect(Collectors.toList()));
+
+        List<BookingView> waiting = bookingRepository.findViewPageByBookerId(booker.getId(), State.WAITING, LocalDateTime.now(), null, 0, 10);
+        assertEquals(List.of(second.getId(), first.getId()), waiting.stream().map(BookingView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findViewPageByItemOwnerIdShouldBreakTiesByIdTest() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = buildBooking(start, start.plusHours(1), Status.REJECTED);
+        Booking second = buildBooking(start, start.plusHours(1), Status.CANCELED);
+        testEntityManager.flush();
+
+        List<BookingView> firstPage = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.PAST, LocalDateTime.now(), null, 0, 1);
+        assertEquals(List.of(second.getId()), firstPage.stream().map(BookingView::getId).collect(Collectors.toList()));
+
+        BookingCursor cursor = new BookingCursor(second.getStart(), second.getId());
+        List<BookingView> secondPage = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.PAST, LocalDateTime.now(), cursor, 0, 1);
+        assertEquals(List.of(first.getId()), secondPage.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertTrue(bookingRepository.findViewPageByItemOwnerId(booker.getId(), State.ALL, LocalDateTime.now(), null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void findViewPageShouldReadColumnsWithoutLoadingEntitiesTest() {
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = buildBooking(start, start.plusHours(1), Status.WAITING);
+        Booking second = buildBooking(start.plusHours(2), start.plusHours(3), Status.APPROVED);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<BookingView> ownerPage = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.FUTURE, LocalDateTime.now(), null, 0, 10);
+        assertEquals(new BookingView(second.getId(), second.getStart(), second.getEnd(), item.getId(), item.getName(),
+                item.getDescription(), item.getAvailable(), null, booker.getId(), booker.getName(), booker.getEmail(),
+                Status.APPROVED), ownerPage.get(0));
+        assertEquals(first.getId(), ownerPage.get(1).getId());
+        assertEquals(List.of(first.getId()), bookingRepository.findViewPageByBookerId(booker.getId(), State.ALL, LocalDateTime.now(), null, 1, 10)
+                .stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(List.of(first.getId()), bookingRepository.findViewPageByBookerId(booker.getId(), State.ALL, LocalDateTime.now(),
+                new BookingCursor(second.getStart(), second.getId()), 1, 10).stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void ownerBookingsQueryShouldNotDependOnInventorySizeTest() {
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        buildBooking(start, start.plusHours(1), Status.WAITING);
+        List<Long> statementCounts = new ArrayList<>();
+        List<Long> entityLoadCounts = new ArrayList<>();
+        for (int inventory : List.of(10, 1000)) {
+            for (int i = 0; i < inventory; i++) {
+                testEntityManager.persist(new Item(null, "item" + i, "description", true, owner, null, null));
+            }
+            testEntityManager.flush();
+            testEntityManager.clear();
+            statistics.clear();
+            List<BookingView> foundBookings = bookingRepository.findViewPageByItemOwnerId(owner.getId(), State.ALL, LocalDateTime.now(), null, 0, 10);
+            assertEquals(1, foundBookings.size());
+            statementCounts.add(statistics.getPrepareStatementCount());
+            entityLoadCounts.add(statistics.getEntityLoadCount());
+        }
+        assertEquals(statementCounts.get(0), statementCounts.get(1));
+        assertEquals(entityLoadCounts.get(0), entityLoadCounts.get(1));
+    }
+
+    @Test
+    void updateStatusByIdInAndStatusShouldChangeOnlyWaitingBookingsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking waiting = buildBooking(start, start.plusHours(1), Status.WAITING);
+        Booking rejected = buildBooking(start.plusHours(2), start.plusHours(3), Status.REJECTED);
+        testEntityManager.flush();
+        List<Integer> ids = List.of(waiting.getId(), rejected.getId());
+
+        assertEquals(List.of(new BookingOwner(waiting.getId(), owner.getId()), new BookingOwner(rejected.getId(), owner.getId())),
+                bookingRepository.findOwnersByIdIn(ids));
+
+        assertEquals(List.of(waiting.getId()), bookingRepository.findIdsByIdInAndStatusForUpdate(ids, Status.WAITING));
+        assertEquals(1, bookingRepository.updateStatusByIdInAndStatus(ids, Status.WAITING, Status.APPROVED));
+        List<Booking> approved = bookingRepository.findAllByIdInAndStatus(ids, Status.APPROVED);
+        assertEquals(1, approved.size());
+        assertEquals(waiting.getId(), approved.get(0).getId());
+        assertEquals(Status.REJECTED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void streamIntervalsShouldReturnActiveBookingsInsideWindowOrderedByStartTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking later = buildBooking(start.plusHours(3), start.plusHours(4), Status.WAITING);
+        Booking earlier = buildBooking(start, start.plusHours(2), Status.APPROVED);
+        buildBooking(start.plusHours(1), start.plusHours(2), Status.REJECTED);
+        buildBooking(start.plusHours(5), start.plusHours(6), Status.WAITING);
+        testEntityManager.flush();
+        List<Integer> ids;
+        try (Stream<BookingInterval> intervals = bookingRepository.streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(
+                item.getId(), start.plusHours(5), start.plusHours(1), List.of(Status.WAITING, Status.APPROVED))) {
+            ids = intervals.map(BookingInterval::getId).collect(Collectors.toList());
+        }
+        assertEquals(List.of(earlier.getId(), later.getId()), ids);
+    }
 }
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPointers;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemBookingPointersTest {
+    private static final int OWNER_ID = 1;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ItemBookingPointers pointers = new ItemBookingPointers(bookingRepository, 300000, 10000);
+
+    private final Item item = new Item(1, "name", "description", true, null, null, null);
+    private final Item otherItem = new Item(2, "other", "other", true, null, null, null);
+    private final User booker = new User(5, "booker", "booker@email.ru");
+    private Booking last;
+    private Booking next;
+
+    @BeforeEach
+    void beforeEach() {
+        LocalDateTime now = LocalDateTime.now();
+        last = new Booking(1, now.minusDays(1), now.minusHours(20), item, booker, Status.APPROVED);
+        next = new Booking(2, now.plusDays(1), now.plusDays(2), item, booker, Status.WAITING);
+        when(bookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(next));
+    }
+
+    @Test
+    void getShouldLoadMissingItemsOnceTest() {
+        Map<Integer, BookingPointers> loaded = pointers.get(List.of(item, otherItem), OWNER_ID);
+        assertEquals(new BookingPointers(last, next), loaded.get(item.getId()));
+        assertEquals(new BookingPointers(), loaded.get(otherItem.getId()));
+        pointers.get(List.of(item, otherItem), OWNER_ID);
+        assertEquals(new BookingPointers(last, next), pointers.get(item, OWNER_ID));
+        verify(bookingRepository, times(1))
+                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList());
+        verify(bookingRepository, times(1))
+                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList());
+    }
+
+    @Test
+    void getShouldUseCurrentItemTest() {
+        pointers.get(item, OWNER_ID);
+        Item renamed = new Item(item.getId(), "renamed", "description", true, null, null, null);
+        assertEquals("renamed", pointers.get(renamed, OWNER_ID).getNext().getItem().getName());
+    }
+
+    @Test
+    void evictBookerShouldReloadTheirPointersTest() {
+        pointers.get(List.of(item, otherItem), OWNER_ID);
+        pointers.evictBooker(7);
+        assertEquals(2, pointers.size());
+        pointers.evictBooker(booker.getId());
+        assertEquals(1, pointers.size());
+        pointers.get(item, OWNER_ID);
+        verify(bookingRepository, times(2))
+                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList());
+    }
+
+    @Test
+    void updateShouldMoveNextToEarlierBookingTest() {
+        pointers.get(item, OWNER_ID);
+        Booking earlier = new Booking(3, next.getStart().minusHours(5), next.getStart().minusHours(4), item, booker, Status.WAITING);
+        pointers.update(earlier);
+        assertEquals(earlier, pointers.get(item, OWNER_ID).getNext());
+        Booking later = new Booking(4, next.getStart().plusDays(3), next.getStart().plusDays(4), item, booker, Status.WAITING);
+        pointers.update(later);
+        assertEquals(earlier, pointers.get(item, OWNER_ID).getNext());
+    }
+
+    @Test
+    void updateShouldReplaceApprovedPointerTest() {
+        pointers.get(item, OWNER_ID);
+        Booking approved = new Booking(next.getId(), next.getStart(), next.getEnd(), item, booker, Status.APPROVED);
+        pointers.update(approved);
+        assertEquals(Status.APPROVED, pointers.get(item, OWNER_ID).getNext().getStatus());
+    }
+
+    @Test
+    void rejectedPointerShouldBeReloadedTest() {
+        pointers.get(item, OWNER_ID);
+        next.setStatus(Status.REJECTED);
+        pointers.update(next);
+        when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of());
+        assertNull(pointers.get(item, OWNER_ID).getNext());
+    }
+
+    @Test
+    void loadShouldNotBeCachedWhenBookingCommittedDuringItTest() {
+        Booking committed = new Booking(3, next.getStart().minusHours(5), next.getStart().minusHours(4), item, booker, Status.WAITING);
+        when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenAnswer(invocation -> {
+                    pointers.update(committed);
+                    return List.of(next);
+                })
+                .thenReturn(List.of(committed));
+        assertEquals(next, pointers.get(item, OWNER_ID).getNext());
+        assertEquals(0, pointers.size());
+        assertEquals(committed, pointers.get(item, OWNER_ID).getNext());
+    }
+
+    @Test
+    void expiredPointersShouldBeReloadedTest() {
+        ItemBookingPointers expiring = new ItemBookingPointers(bookingRepository, 0, 10000);
+        when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of());
+        assertNull(expiring.get(item, OWNER_ID).getNext());
+        when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(next));
+        assertEquals(next, expiring.get(item, OWNER_ID).getNext());
+        expiring.sweep();
+        assertEquals(0, expiring.size());
+    }
+
+    @Test
+    void cacheShouldStopGrowingAtMaxEntriesTest() {
+        ItemBookingPointers bounded = new ItemBookingPointers(bookingRepository, 300000, 1);
+        bounded.get(List.of(item, otherItem), OWNER_ID);
+        assertEquals(1, bounded.size());
+    }
+
+    @Test
+    void sweepShouldReloadStartedNextBookingTest() {
+        next.setStart(LocalDateTime.now().minusMinutes(1));
+        pointers.get(item, OWNER_ID);
+        pointers.sweep();
+        verify(bookingRepository, times(2))
+                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList());
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service.integration;
+
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BookingServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    private final EasyRandom generator = new EasyRandom();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = saveUser();
+        for (int i = 0; i < THREADS; i++) {
+            saveUser();
+        }
+        for (int i = 0; i < 2; i++) {
+            items.add(itemRepository.save(new Item(null, "item" + i, "description" + i, true, owner, null, null)));
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll(findBookings(items));
+        itemRepository.deleteAll(items);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void concurrentAddBookingShouldNotCreateOverlappingBookingsTest() throws Exception {
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = users.get(i + 1);
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Item item = items.get(random.nextInt(items.size()));
+                    LocalDateTime start = base.plusMinutes(30L * random.nextInt(40));
+                    LocalDateTime end = start.plusMinutes(30L * (1 + random.nextInt(4)));
+                    try {
+                        bookingService.addBooking(new Booking(null, start, end, null, null, null), item.getId(), booker.getId());
+                    } catch (ItemNotAvailableException e) {
+                        // conflicting attempts are expected to be rejected
+                    }
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        for (Item item : items) {
+            List<Booking> bookings = findBookings(List.of(item)).stream()
+                    .filter(b -> b.getStatus() == Status.WAITING || b.getStatus() == Status.APPROVED)
+                    .sorted(Comparator.comparing(Booking::getStart))
+                    .collect(Collectors.toList());
+            assertFalse(bookings.isEmpty());
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(!bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()),
+                        "Бронирования " + bookings.get(i - 1).getId() + " и " + bookings.get(i).getId() + " пересекаются");
+            }
+        }
+    }
+
+    private List<Booking> findBookings(List<Item> items) {
+        List<Integer> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        return bookingRepository.findAll().stream()
+                .filter(b -> itemIds.contains(b.getItem().getId()))
+                .collect(Collectors.toList());
+    }
+
+    private User saveUser() {
+        User user = generator.nextObject(User.class);
+        user.setId(null);
+        user = userRepository.save(user);
+        users.add(user);
+        return user;
+    }
+}
@@ -6,16 +6,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
+import ru.practicum.shareit.booking.exception.UserNotOwnerOrCreator;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
@@ -26,6 +38,8 @@ public class BookingServiceIntegrationTest {
     private final EasyRandom generator = new EasyRandom();
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
 
     private User booker;
     private Item item;
@@ -47,4 +61,72 @@ public class BookingServiceIntegrationTest {
         Booking booking = new Booking(null, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusDays(1), item, booker, Status.WAITING);
         assertDoesNotThrow(() -> bookingService.addBooking(booking, item.getId(), booker.getId()));
     }
+
+    @Test
+    void addBookingShouldBeRejectedByDatabaseConstraintTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingAvailabilityIndex.isFree(item.getId(), start, start.plusHours(1));
+        entityManager.persist(new Booking(null, start, start.plusHours(2), item, booker, Status.APPROVED));
+        entityManager.flush();
+        Booking booking = new Booking(null, start.plusHours(1), start.plusHours(3), null, null, null);
+        assertThrows(ItemNotAvailableException.class, () -> bookingService.addBooking(booking, item.getId(), booker.getId()));
+    }
+
+    @Test
+    void addBookingsShouldPersistThousandBookingsInOneCallTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        entityManager.persist(new Booking(null, start, start.plusHours(1), item, booker, Status.APPROVED));
+        entityManager.flush();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Booking booking = new Booking(null, start.plusHours(i), start.plusHours(i + 1), new Item(), null, null);
+            booking.getItem().setId(item.getId());
+            bookings.add(booking);
+        }
+
+        List<BookingBatchResult> results = bookingService.addBookings(bookings, booker.getId());
+
+        assertNotNull(results.get(0).getError());
+        Set<Integer> ids = results.stream().skip(1)
+                .map(result -> result.getBooking().getId())
+                .collect(Collectors.toSet());
+        assertEquals(999, ids.size());
+        Long persisted = entityManager.createQuery("SELECT COUNT(b) FROM Booking b WHERE b.item.id = :itemId", Long.class)
+                .setParameter("itemId", item.getId())
+                .getSingleResult();
+        assertEquals(1000, persisted);
+    }
+
+    @Test
+    void approveBookingsShouldSkipNotWaitingBookingsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking waiting = new Booking(null, start, start.plusHours(1), item, booker, Status.WAITING);
+        Booking canceled = new Booking(null, start.plusHours(1), start.plusHours(2), item, booker, Status.CANCELED);
+        entityManager.persist(waiting);
+        entityManager.persist(canceled);
+
+        List<Booking> approved = bookingService.approveBookings(
+                List.of(waiting.getId(), canceled.getId()), item.getOwner().getId(), true);
+
+        assertEquals(1, approved.size());
+        assertEquals(waiting.getId(), approved.get(0).getId());
+        assertEquals(Status.APPROVED, approved.get(0).getStatus());
+        assertThrows(UserNotOwnerOrCreator.class,
+                () -> bookingService.approveBookings(List.of(waiting.getId()), booker.getId(), false));
+    }
+
+    @Test
+    void approveBookingsShouldNotReturnAlreadyApprovedBookingsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking waiting = new Booking(null, start, start.plusHours(1), item, booker, Status.WAITING);
+        Booking approved = new Booking(null, start.plusHours(1), start.plusHours(2), item, booker, Status.APPROVED);
+        entityManager.persist(waiting);
+        entityManager.persist(approved);
+
+        List<Booking> changed = bookingService.approveBookings(
+                List.of(waiting.getId(), approved.getId()), item.getOwner().getId(), true);
+
+        assertEquals(List.of(waiting.getId()), changed.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(Status.APPROVED, changed.get(0).getStatus());
+    }
 }
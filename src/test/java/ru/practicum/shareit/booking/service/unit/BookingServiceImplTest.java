@@ -3,20 +3,34 @@ package ru.practicum.shareit.booking.service.unit;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.InvalidBookingStatusException;
+import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
 import ru.practicum.shareit.booking.exception.UserNotOwnerOrCreator;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingOwner;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemReservationLocks;
+import ru.practicum.shareit.event.model.UserEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -24,12 +38,18 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -39,8 +59,12 @@ public class BookingServiceImplTest {
     private final ItemRepository itemRepository = mock(ItemRepository.class);
     private final BookingRepository bookingRepository = mock(BookingRepository.class);
 
+    private final BookingAvailabilityIndex bookingAvailabilityIndex = new BookingAvailabilityIndex(bookingRepository);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
     private final BookingService bookingService = new BookingServiceImpl(
-            itemRepository, userRepository, bookingRepository
+            itemRepository, userRepository, bookingRepository, bookingAvailabilityIndex, new ItemReservationLocks(),
+            new ItemBookingPointers(bookingRepository, 300000, 10000), eventPublisher
     );
 
     private User user;
@@ -56,11 +80,70 @@ public class BookingServiceImplTest {
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItemIdAndStartBetweenAndEndBetween(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList()))
                 .thenReturn(Collections.emptyList());
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
         Booking addedBooking = bookingService.addBooking(booking, item.getId(), user.getId());
         assertEquals(booking, addedBooking);
+        verify(eventPublisher).publishEvent(UserEvent.bookingCreated(item.getOwner().getId(), booking.getId(), item.getId()));
+    }
+
+    @Test
+    void shouldThrowItemNotAvailableExceptionWhenIndexAndDatabaseReportOverlapTest() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), null, null, null);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(new BookingInterval(1, 1, start.minusHours(1), start.plusDays(2))));
+        when(bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList())).thenReturn(true);
+        assertThrows(ItemNotAvailableException.class, () -> bookingService.addBooking(booking, item.getId(), user.getId()));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldAddBookingWhenDatabaseDoesNotConfirmIndexOverlapTest() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), null, null, null);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.findIntervalsByItemIdAndEndIsAfterAndStatusIn(anyInt(), any(LocalDateTime.class), anyList()))
+                .thenReturn(List.of(new BookingInterval(1, 1, start, start.plusHours(1))));
+        when(bookingRepository.existsByItemIdAndStartBeforeAndEndAfterAndStatusIn(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
+        assertEquals(booking, bookingService.addBooking(booking, item.getId(), user.getId()));
+    }
+
+    @Test
+    void shouldTranslateOverlapConstraintViolationToItemNotAvailableExceptionTest() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), null, null, null);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        assertThrows(ItemNotAvailableException.class, () -> bookingService.addBooking(booking, item.getId(), user.getId()));
+    }
+
+    @Test
+    void shouldRethrowOtherConstraintViolationsTest() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), null, null, null);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("Referential integrity constraint violation", "23506")));
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.addBooking(booking, item.getId(), user.getId()));
     }
 
     @Test
@@ -97,6 +180,8 @@ public class BookingServiceImplTest {
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         Booking approvedBooking = bookingService.approveBooking(booking.getId(), user.getId(), true);
         assertEquals(Status.APPROVED, approvedBooking.getStatus());
+        verify(eventPublisher).publishEvent(UserEvent.bookingStatusChanged(
+                booking.getBooker().getId(), booking.getId(), booking.getItem().getId(), Status.APPROVED));
     }
 
     @Test
@@ -116,112 +201,148 @@ public class BookingServiceImplTest {
     }
 
     @Test
-    void getAllBookingsOfUserByCurrentStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.CURRENT, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void getBookingViewsOfUserTest() {
+        List<BookingView> views = generator.objects(BookingView.class, 5).collect(Collectors.toList());
+        when(bookingRepository.findViewPageByBookerId(anyInt(), eq(State.PAST), any(LocalDateTime.class), isNull(), eq(10), eq(5))).thenReturn(views);
+        assertEquals(views, bookingService.getBookingViewsOfUser(user.getId(), State.PAST, null, 12, 5));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingViewsOfUser(user.getId(), State.PAST, null, 0, 0));
     }
 
     @Test
-    void getAllBookingsOfUserByFutureStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyInt(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.FUTURE, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void getBookingViewsOfUserShouldThrowOnlyForEmptyFirstPageTest() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), 10);
+        when(bookingRepository.findViewPageByBookerId(anyInt(), any(State.class), any(LocalDateTime.class), any(), anyInt(), anyInt())).thenReturn(List.of());
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingViewsOfUser(user.getId(), State.ALL, null, 0, 5));
+        assertEquals(List.of(), bookingService.getBookingViewsOfUser(user.getId(), State.ALL, cursor, 0, 5));
     }
 
     @Test
-    void getAllBookingsOfUserByPastStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.PAST, 0, 10);
-        assertEquals(bookings, foundBookings);
+    void getBookingViewsOfUserItemsTest() {
+        when(bookingRepository.findViewPageByItemOwnerId(anyInt(), any(State.class), any(LocalDateTime.class), isNull(), anyInt(), anyInt())).thenReturn(List.of());
+        when(itemRepository.existsByOwnerId(anyInt())).thenReturn(true);
+        assertEquals(List.of(), bookingService.getBookingViewsOfUserItems(user.getId(), State.ALL, null, 0, 5));
+        when(itemRepository.existsByOwnerId(anyInt())).thenReturn(false);
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingViewsOfUserItems(user.getId(), State.ALL, null, 0, 5));
     }
 
     @Test
-    void getAllBookingsOfUserByWaitingStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyInt(), eq(Status.WAITING), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.WAITING, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void addBookingsShouldRejectEntriesOverlappingEachOtherOrExistingBookingsTest() {
+        User owner = generator.nextObject(User.class);
+        owner.setId(user.getId() + 1);
+        Item item = new Item(1, "name", "description", true, owner, null, null);
+        Item unavailableItem = new Item(2, "name", "description", false, owner, null, null);
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = List.of(
+                buildBatchBooking(base.plusHours(1), base.plusHours(3), item.getId()),
+                buildBatchBooking(base, base.plusHours(2), item.getId()),
+                buildBatchBooking(base.plusHours(2), base.plusHours(4), item.getId()),
+                buildBatchBooking(base.plusHours(5), base.plusHours(7), item.getId()),
+                buildBatchBooking(base, base.plusHours(1), unavailableItem.getId()),
+                buildBatchBooking(base, base.plusHours(1), 3),
+                buildBatchBooking(base.plusHours(1), base, item.getId())
+        );
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item, unavailableItem));
+        when(bookingRepository.findIntervalsByItemIdInAndStartIsBeforeAndEndIsAfterAndStatusIn(any(), any(), any(), anyList()))
+                .thenReturn(List.of(new BookingInterval(10, item.getId(), base.plusHours(6), base.plusHours(8))));
+        when(bookingRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingBatchResult> results = bookingService.addBookings(bookings, user.getId());
+
+        assertEquals(bookings.size(), results.size());
+        assertNull(results.get(0).getBooking());
+        assertEquals(bookings.get(1), results.get(1).getBooking());
+        assertEquals(Status.WAITING, results.get(1).getBooking().getStatus());
+        assertEquals(bookings.get(2), results.get(2).getBooking());
+        for (int i = 3; i < results.size(); i++) {
+            assertNull(results.get(i).getBooking());
+            assertNotNull(results.get(i).getError());
+        }
+        verify(bookingRepository).insertAll(List.of(bookings.get(1), bookings.get(2)));
     }
 
     @Test
-    void getAllBookingsOfUserByRejectedStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyInt(), eq(Status.REJECTED), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.REJECTED, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void addBookingsShouldNotTouchBookingsWhenAllEntriesAreInvalidTest() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        List<BookingBatchResult> results = bookingService.addBookings(
+                List.of(buildBatchBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now(), 1)), user.getId());
+        assertNotNull(results.get(0).getError());
+        verify(bookingRepository, never()).insertAll(anyList());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.addBookings(List.of(), user.getId()));
     }
 
     @Test
-    void getAllBookingsOfUserByAllStateTest() {
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyInt(), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(user.getId(), State.ALL, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void addBookingsShouldReportConflictWhenInsertHitsOverlapConstraintTest() {
+        User owner = generator.nextObject(User.class);
+        owner.setId(user.getId() + 1);
+        Item item = new Item(1, "name", "description", true, owner, null, null);
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item));
+        when(bookingRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException(
+                "could not execute batch", new SQLException("Check constraint violation", "23513")));
+        assertThrows(BookingConflictException.class, () -> bookingService.addBookings(
+                List.of(buildBatchBooking(base, base.plusHours(1), item.getId())), user.getId()));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
-    private List<Booking> buildDataGetAllBookingsOfUserItems() {
-        List<Item> items = generator.objects(Item.class, 5).collect(Collectors.toList());
-        List<Booking> bookings = generator.objects(Booking.class, 5).collect(Collectors.toList());
-        for (int i = 0; i < bookings.size(); i++) {
-            items.get(i).setOwner(user);
-            bookings.get(i).setItem(items.get(i));
-        }
-        when(itemRepository.findByOwnerId(anyInt(), any(Pageable.class))).thenReturn(items);
-        return bookings;
+    private Booking buildBatchBooking(LocalDateTime start, LocalDateTime end, Integer itemId) {
+        Item item = new Item();
+        item.setId(itemId);
+        return new Booking(null, start, end, item, null, null);
     }
 
     @Test
-    void getAllBookingsOfUserItemsByCurrentState() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.CURRENT, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void approveBookingsTest() {
+        List<Booking> bookings = generator.objects(Booking.class, 2).collect(Collectors.toList());
+        List<Integer> ids = List.of(bookings.get(0).getId(), bookings.get(1).getId());
+        when(bookingRepository.findOwnersByIdIn(any())).thenReturn(owners(ids, user.getId()));
+        when(bookingRepository.findIdsByIdInAndStatusForUpdate(any(), eq(Status.WAITING))).thenReturn(ids);
+        when(bookingRepository.updateStatusByIdInAndStatus(any(), eq(Status.WAITING), eq(Status.REJECTED))).thenReturn(2);
+        when(bookingRepository.findAllByIdInAndStatus(any(), eq(Status.REJECTED))).thenReturn(bookings);
+        assertEquals(bookings, bookingService.approveBookings(ids, user.getId(), false));
+        verify(eventPublisher, times(2)).publishEvent(any(UserEvent.class));
     }
 
     @Test
-    void getAllBookingsOfUserItemsByFutureState() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(anyList(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.FUTURE, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void approveBookingsShouldChangeOnlyWaitingBookingsTest() {
+        List<Booking> bookings = generator.objects(Booking.class, 1).collect(Collectors.toList());
+        List<Integer> ids = List.of(bookings.get(0).getId(), bookings.get(0).getId() + 1);
+        List<Integer> waitingIds = List.of(bookings.get(0).getId());
+        when(bookingRepository.findOwnersByIdIn(any())).thenReturn(owners(ids, user.getId()));
+        when(bookingRepository.findIdsByIdInAndStatusForUpdate(any(), eq(Status.WAITING))).thenReturn(waitingIds);
+        when(bookingRepository.findAllByIdInAndStatus(waitingIds, Status.APPROVED)).thenReturn(bookings);
+        assertEquals(bookings, bookingService.approveBookings(ids, user.getId(), true));
+        verify(bookingRepository).updateStatusByIdInAndStatus(waitingIds, Status.WAITING, Status.APPROVED);
+        verify(eventPublisher, times(1)).publishEvent(any(UserEvent.class));
     }
 
     @Test
-    void getAllBookingsOfUserItemsByPastStateTest() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.PAST, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void approveBookingsShouldSkipUpdateWhenNothingIsWaitingTest() {
+        when(bookingRepository.findOwnersByIdIn(any())).thenReturn(owners(List.of(1), user.getId()));
+        when(bookingRepository.findIdsByIdInAndStatusForUpdate(any(), eq(Status.WAITING))).thenReturn(List.of());
+        assertEquals(List.of(), bookingService.approveBookings(List.of(1), user.getId(), true));
+        verify(bookingRepository, never()).updateStatusByIdInAndStatus(any(), any(), any());
     }
 
     @Test
-    void getAllBookingsOfUserItemsByWaitingStateTest() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(anyList(), eq(Status.WAITING), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.WAITING, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void shouldThrowUserNotOwnerOrCreatorWhenApproveForeignBookingsTest() {
+        when(bookingRepository.findOwnersByIdIn(any()))
+                .thenReturn(List.of(new BookingOwner(1, user.getId()), new BookingOwner(2, user.getId() + 1)));
+        assertThrows(UserNotOwnerOrCreator.class, () -> bookingService.approveBookings(List.of(1, 2), user.getId(), true));
+        verify(bookingRepository, never()).updateStatusByIdInAndStatus(any(), any(), any());
     }
 
     @Test
-    void getAllBookingsOfUserItemsByRejectedStateTest() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(anyList(), eq(Status.REJECTED), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.REJECTED, 0, 5);
-        assertEquals(bookings, foundBookings);
+    void shouldThrowBookingNotFoundWhenApproveMissingBookingsTest() {
+        when(bookingRepository.findOwnersByIdIn(any())).thenReturn(List.of(new BookingOwner(1, user.getId() + 1)));
+        BookingNotFoundException e = assertThrows(BookingNotFoundException.class,
+                () -> bookingService.approveBookings(List.of(1, 2), user.getId(), true));
+        assertEquals(new BookingNotFoundException(2).getMessage(), e.getMessage());
+        verify(bookingRepository, never()).updateStatusByIdInAndStatus(any(), any(), any());
     }
 
-    @Test
-    void getAllBookingsOfUserItemsByAllStateTest() {
-        List<Booking> bookings = buildDataGetAllBookingsOfUserItems();
-        when(bookingRepository.findAllByItemIdInOrderByStartDesc(anyList(), any(Pageable.class))).thenReturn(bookings);
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(user.getId(), State.ALL, 0, 5);
-        assertEquals(bookings, foundBookings);
+    private static List<BookingOwner> owners(List<Integer> ids, int ownerId) {
+        return ids.stream().map(id -> new BookingOwner(id, ownerId)).collect(Collectors.toList());
     }
-
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.event.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.service.EventService;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = EventController.class)
+public class EventControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventService eventService;
+
+    @Test
+    void subscribeTest() throws Exception {
+        when(eventService.subscribe(1)).thenReturn(new SseEmitter());
+        mockMvc.perform(get("/events").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void subscribeUnknownUserTest() throws Exception {
+        when(eventService.subscribe(1)).thenThrow(new UserNotFoundException(1));
+        mockMvc.perform(get("/events").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+    }
+}
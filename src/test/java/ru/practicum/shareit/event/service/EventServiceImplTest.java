@@ -0,0 +1,246 @@
+package ru.practicum.shareit.event.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.event.model.UserEvent;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventServiceImplTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventProperties eventProperties = new EventProperties();
+    private final EventServiceImpl eventService;
+
+    EventServiceImplTest() {
+        eventProperties.setBufferSize(3);
+        eventService = new EventServiceImpl(userRepository, eventProperties);
+    }
+
+    @AfterEach
+    void afterEach() {
+        eventService.shutdown();
+    }
+
+    @Test
+    void eventsShouldReachOnlyTheirRecipientTest() throws InterruptedException {
+        RecordingEmitter first = new RecordingEmitter(2);
+        RecordingEmitter other = new RecordingEmitter(1);
+        eventService.subscribe(1, first);
+        eventService.subscribe(2, other);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 10, 100));
+        eventService.onUserEvent(UserEvent.requestItemAdded(1, 5, 101));
+        eventService.onUserEvent(UserEvent.bookingCreated(3, 11, 100));
+        first.await();
+        assertEquals(List.of(UserEvent.bookingCreated(1, 10, 100), UserEvent.requestItemAdded(1, 5, 101)), first.sent);
+        assertEquals(List.of(), other.sent);
+    }
+
+    @Test
+    void slowSubscriberShouldGetCoalescedAndBoundedEventsTest() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(5);
+        emitter.blocked = new CountDownLatch(1);
+        eventService.subscribe(1, emitter);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        eventService.onUserEvent(UserEvent.bookingStatusChanged(1, 2, 100, Status.APPROVED));
+        eventService.onUserEvent(UserEvent.bookingStatusChanged(1, 2, 100, Status.REJECTED));
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 3, 100));
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 4, 100));
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 5, 100));
+        emitter.blocked.countDown();
+        emitter.await();
+        assertEquals(List.of(
+                UserEvent.bookingCreated(1, 1, 100),
+                1,
+                UserEvent.bookingCreated(1, 3, 100),
+                UserEvent.bookingCreated(1, 4, 100),
+                UserEvent.bookingCreated(1, 5, 100)
+        ), emitter.sent);
+    }
+
+    @Test
+    void failedSendShouldUnsubscribeTest() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        emitter.failing = true;
+        eventService.subscribe(1, emitter);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        emitter.await();
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 2, 100));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(1, emitter.attempts);
+        assertTrue(emitter.failed);
+    }
+
+    @Test
+    void subscribeOverLimitShouldCompleteOldestStreamTest() throws InterruptedException {
+        eventProperties.setMaxStreamsPerUser(2);
+        RecordingEmitter oldest = new RecordingEmitter(1);
+        RecordingEmitter second = new RecordingEmitter(1);
+        RecordingEmitter newest = new RecordingEmitter(1);
+        eventService.subscribe(1, oldest);
+        eventService.subscribe(1, second);
+        eventService.subscribe(1, newest);
+        assertTrue(oldest.completed);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        second.await();
+        newest.await();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(0, oldest.attempts);
+    }
+
+    @Test
+    void heartbeatShouldPingStreamsAndDropDeadOnesTest() throws InterruptedException {
+        RecordingEmitter alive = new RecordingEmitter(1);
+        RecordingEmitter dead = new RecordingEmitter(1);
+        dead.failing = true;
+        eventService.subscribe(1, alive);
+        eventService.subscribe(1, dead);
+        eventService.heartbeat();
+        alive.await();
+        dead.await();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(List.of(), alive.sent);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(2, alive.attempts);
+        assertEquals(1, dead.attempts);
+    }
+
+    @Test
+    void heartbeatShouldNotPingBusyStreamTest() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        emitter.blocked = new CountDownLatch(1);
+        eventService.subscribe(1, emitter);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        eventService.heartbeat();
+        eventService.heartbeat();
+        emitter.blocked.countDown();
+        emitter.await();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(1, emitter.attempts);
+    }
+
+    @Test
+    void heartbeatShouldCloseStuckStreamTest() throws InterruptedException {
+        eventProperties.setSendTimeout(Duration.ofMillis(1));
+        RecordingEmitter stuck = new RecordingEmitter(1);
+        stuck.blocked = new CountDownLatch(1);
+        eventService.subscribe(1, stuck);
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+        assertTrue(stuck.sending.await(5, TimeUnit.SECONDS));
+        TimeUnit.MILLISECONDS.sleep(10);
+        eventService.heartbeat();
+        assertTrue(stuck.failed);
+        stuck.blocked.countDown();
+        stuck.await();
+        eventService.onUserEvent(UserEvent.bookingCreated(1, 2, 100));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(1, stuck.attempts);
+    }
+
+    @Test
+    void eventsRejectedByFullQueueShouldBeSentOnHeartbeatTest() throws InterruptedException {
+        EventProperties properties = new EventProperties();
+        properties.setSenderThreads(1);
+        properties.setSenderQueueSize(1);
+        EventServiceImpl service = new EventServiceImpl(userRepository, properties);
+        try {
+            RecordingEmitter slow = new RecordingEmitter(1);
+            slow.blocked = new CountDownLatch(1);
+            RecordingEmitter queued = new RecordingEmitter(1);
+            RecordingEmitter rejected = new RecordingEmitter(2);
+            service.subscribe(2, slow);
+            service.subscribe(3, queued);
+            service.subscribe(1, rejected);
+            service.onUserEvent(UserEvent.bookingCreated(2, 2, 100));
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            service.onUserEvent(UserEvent.bookingCreated(3, 3, 100));
+            service.onUserEvent(UserEvent.bookingCreated(1, 1, 100));
+            slow.blocked.countDown();
+            queued.await();
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertEquals(0, rejected.attempts);
+            service.heartbeat();
+            rejected.await();
+            assertEquals(List.of(UserEvent.bookingCreated(1, 1, 100)), rejected.sent);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void subscribeShouldCheckUserTest() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        assertThrows(UserNotFoundException.class, () -> eventService.subscribe(1));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile CountDownLatch blocked;
+        private volatile boolean failing;
+        private volatile boolean completed;
+        private volatile boolean failed;
+        private volatile int attempts;
+
+        RecordingEmitter(int expected) {
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            sending.countDown();
+            try {
+                if (blocked != null) {
+                    blocked.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                done.countDown();
+                throw new IOException("closed");
+            }
+            sent.addAll(builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(data -> !(data instanceof String))
+                    .collect(Collectors.toList()));
+            done.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed = true;
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
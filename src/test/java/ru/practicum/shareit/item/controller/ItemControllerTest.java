@@ -11,24 +11,33 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingInfoDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemAvailability;
 import ru.practicum.shareit.item.model.ItemBookingInfo;
+import ru.practicum.shareit.item.model.TimeSlot;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -117,7 +126,7 @@ class ItemControllerTest {
 
     @Test
     void searchAvailableItemsTest() throws Exception {
-        when(itemService.searchAvailableItems(anyString(), anyInt(), anyInt())).thenReturn(List.of(item));
+        when(itemService.searchAvailableItems(anyString(), isNull(), isNull(), anyInt(), anyInt())).thenReturn(List.of(item));
         MvcResult result = mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
                         .param("text", generator.nextObject(String.class)))
@@ -147,4 +156,60 @@ class ItemControllerTest {
         assertEquals(comment.getText(), responseCommentDTO.getText());
         assertEquals(comment.getAuthor().getName(), responseCommentDTO.getAuthorName());
     }
+
+    @Test
+    void getItemAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusHours(4);
+        when(itemService.getItemAvailability(item.getId(), from, to)).thenReturn(new ItemAvailability(item.getId(), from, to,
+                List.of(new TimeSlot(from, from.plusHours(1))), List.of(new TimeSlot(from.plusHours(1), to))));
+        mockMvc.perform(get("/items/" + item.getId() + "/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T14:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(item.getId()))
+                .andExpect(jsonPath("$.busy[0].end").value("2030-01-01T11:00:00"))
+                .andExpect(jsonPath("$.free[0].start").value("2030-01-01T11:00:00"));
+    }
+
+    @Test
+    void searchAvailableItemsInWindowTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.searchAvailableItems(eq("drill"), eq(start), eq(start.plusDays(1)), anyInt(), anyInt())).thenReturn(List.of(item));
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(item.getId()));
+    }
+
+    @Test
+    void suggestItemNamesTest() throws Exception {
+        when(itemService.suggestItemNames("дре", 5)).thenReturn(List.of("Дрель", "Дрель ударная"));
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1]").value("Дрель ударная"));
+    }
+
+    @Test
+    void getCommentsShouldSetNextCursorOnFullPageTest() throws Exception {
+        List<Comment> comments = generator.objects(Comment.class, 2).collect(Collectors.toList());
+        when(itemService.getComments(1, 50, 2)).thenReturn(comments);
+        mockMvc.perform(get("/items/1/comments")
+                        .param("after", "50")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PagingHeaders.NEXT_CURSOR, String.valueOf(comments.get(1).getId())))
+                .andExpect(jsonPath("$[0].id").value(comments.get(0).getId()))
+                .andExpect(jsonPath("$[0].authorName").value(comments.get(0).getAuthor().getName()));
+        when(itemService.getComments(1, null, 10)).thenReturn(comments);
+        mockMvc.perform(get("/items/1/comments"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PagingHeaders.NEXT_CURSOR))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
 }
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentRank;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CommentRepositoryTest {
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void findLatestByItemIdInShouldReturnLatestIdsAndTotalPerItemTest() {
+        User author = testEntityManager.persist(new User(null, "author", "author@mail.ru"));
+        Item busy = testEntityManager.persist(new Item(null, "busy", "busy", true, author, null, null));
+        Item quiet = testEntityManager.persist(new Item(null, "quiet", "quiet", true, author, null, null));
+        Item silent = testEntityManager.persist(new Item(null, "silent", "silent", true, author, null, null));
+        List<Integer> busyIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            busyIds.add(persistComment(busy, author));
+        }
+        int quietId = persistComment(quiet, author);
+
+        List<CommentRank> ranks = commentRepository.findLatestByItemIdIn(List.of(busy.getId(), quiet.getId(), silent.getId()), 3);
+
+        Map<Integer, List<Integer>> idsByItem = ranks.stream().collect(Collectors.groupingBy(CommentRank::getItemId,
+                Collectors.mapping(CommentRank::getId, Collectors.toList())));
+        assertEquals(2, idsByItem.size());
+        assertEquals(List.of(busyIds.get(4), busyIds.get(3), busyIds.get(2)),
+                idsByItem.get(busy.getId()).stream().sorted((a, b) -> b - a).collect(Collectors.toList()));
+        assertEquals(List.of(quietId), idsByItem.get(quiet.getId()));
+        ranks.forEach(rank -> assertEquals(rank.getItemId().equals(busy.getId()) ? 5L : 1L, rank.getTotal()));
+    }
+
+    @Test
+    void findByItemIdAndIdLessThanShouldPageNewestFirstTest() {
+        User author = testEntityManager.persist(new User(null, "author", "author@mail.ru"));
+        Item item = testEntityManager.persist(new Item(null, "item", "item", true, author, null, null));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persistComment(item, author));
+        }
+        List<Comment> first = commentRepository.findByItemIdOrderByIdDesc(item.getId(), PageRequest.of(0, 2));
+        List<Comment> second = commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(
+                item.getId(), first.get(1).getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(ids.get(4), ids.get(3)), first.stream().map(Comment::getId).collect(Collectors.toList()));
+        assertEquals(List.of(ids.get(2), ids.get(1)), second.stream().map(Comment::getId).collect(Collectors.toList()));
+    }
+
+    private int persistComment(Item item, User author) {
+        return testEntityManager.persist(new Comment(null, "text", item, author, LocalDateTime.now())).getId();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemNameSuggestionsTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemNameSuggestions suggestions = new ItemNameSuggestions(itemRepository);
+
+    @BeforeEach
+    void beforeEach() {
+        when(itemRepository.streamSearchEntries()).thenAnswer(invocation -> List.of(
+                new ItemSearchEntry(1, "Дрель", "", true, null),
+                new ItemSearchEntry(2, "Дрель ударная", "", true, null),
+                new ItemSearchEntry(3, "Доска", "", true, null),
+                new ItemSearchEntry(4, "Дрезина", "", false, null),
+                new ItemSearchEntry(5, "дрель", "", true, null),
+                new ItemSearchEntry(6, "Отвертка", "", true, null)
+        ).stream());
+    }
+
+    @Test
+    void suggestShouldReturnDistinctNamesByPrefixTest() {
+        assertEquals(List.of("Дрель", "дрель", "Дрель ударная"), suggestions.suggest("дР", 10));
+        assertEquals(List.of("Доска", "Дрель"), suggestions.suggest("Д", 2));
+        assertEquals(List.of(), suggestions.suggest("Пила", 10));
+        assertEquals(List.of("Отвертка"), suggestions.suggest("о", 10));
+        verify(itemRepository, times(1)).streamSearchEntries();
+    }
+
+    @Test
+    void updateShouldMoveRenamedAndToggledItemsTest() {
+        suggestions.build();
+        suggestions.update(new Item(4, "Дрезина", "", true, null, null, null));
+        suggestions.update(new Item(1, "Перфоратор", "", true, null, null, null));
+        suggestions.update(new Item(2, "Дрель ударная", "", false, null, null, null));
+        assertEquals(List.of("Дрезина", "дрель"), suggestions.suggest("ДРЕ", 10));
+        assertEquals(List.of("Перфоратор"), suggestions.suggest("пер", 10));
+        suggestions.update(new Item(7, "Дрель новая", "", true, null, null, null));
+        assertEquals(List.of("Дрезина", "дрель", "Дрель новая"), suggestions.suggest("дре", 10));
+    }
+}
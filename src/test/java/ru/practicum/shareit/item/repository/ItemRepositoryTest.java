@@ -6,10 +6,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -35,4 +40,40 @@ public class ItemRepositoryTest {
         );
         assertEquals(savedItem.getId(), foundItems.get(0).getId());
     }
+
+    @Test
+    void searchAvailableShouldSkipUnavailableItemsMatchedByNameTest() {
+        User owner = generator.nextObject(User.class);
+        owner.setId(null);
+        testEntityManager.persist(owner);
+        Item available = itemRepository.save(new Item(null, "desc", "saw", true, owner, null, null));
+        itemRepository.save(new Item(null, "saw", "desc", false, owner, null, null));
+        itemRepository.save(new Item(null, "desc", "old saw", false, owner, null, null));
+        List<Item> foundItems = itemRepository.searchAvailable("SAW", Pageable.unpaged());
+        assertEquals(List.of(available.getId()), foundItems.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchAvailableWithoutBookingsBetweenTest() {
+        User owner = generator.nextObject(User.class);
+        owner.setId(null);
+        testEntityManager.persist(owner);
+        User booker = generator.nextObject(User.class);
+        booker.setId(null);
+        testEntityManager.persist(booker);
+        Item booked = itemRepository.save(new Item(null, "drill one", "desc", true, owner, null, null));
+        Item rejected = itemRepository.save(new Item(null, "drill two", "desc", true, owner, null, null));
+        Item free = itemRepository.save(new Item(null, "desc", "cordless drill", true, owner, null, null));
+        itemRepository.save(new Item(null, "drill three", "desc", false, owner, null, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        testEntityManager.persist(new Booking(null, start.minusHours(1), start.plusHours(1), booked, booker, Status.WAITING));
+        testEntityManager.persist(new Booking(null, start, start.plusHours(2), rejected, booker, Status.REJECTED));
+        testEntityManager.persist(new Booking(null, start.plusHours(2), start.plusHours(3), free, booker, Status.APPROVED));
+
+        List<Integer> foundIds = itemRepository.searchAvailableWithoutBookingsBetween(
+                "DRILL", start, start.plusHours(2), List.of(Status.WAITING, Status.APPROVED), Pageable.unpaged()
+        ).stream().map(Item::getId).sorted().collect(Collectors.toList());
+
+        assertEquals(List.of(rejected.getId(), free.getId()), foundIds);
+    }
 }
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemSearchCacheTest {
+    private final ItemSearchProperties itemSearchProperties = new ItemSearchProperties();
+    private final ItemSearchCache cache = new ItemSearchCache(itemSearchProperties);
+
+    @Test
+    void getShouldCountHitsAndMissesTest() {
+        assertNull(cache.get("Drill", 0, 10));
+        cache.put("Drill", 0, 10, List.of(3, 1), cache.generation());
+        assertEquals(List.of(3, 1), cache.get("dRILL", 0, 10));
+        assertNull(cache.get("drill", 10, 10));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void putShouldEvictLeastRecentlyUsedAndExpiredEntriesTest() {
+        itemSearchProperties.getCache().setMaxSize(2);
+        cache.put("drill", 0, 10, List.of(1), cache.generation());
+        cache.put("tent", 0, 10, List.of(2), cache.generation());
+        cache.get("drill", 0, 10);
+        cache.put("ladder", 0, 10, List.of(3), cache.generation());
+        assertNull(cache.get("tent", 0, 10));
+        assertEquals(List.of(1), cache.get("drill", 0, 10));
+        itemSearchProperties.getCache().setTtl(Duration.ZERO);
+        assertNull(cache.get("ladder", 0, 10));
+        assertEquals(1, cache.getSize());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void putShouldSkipResultsComputedBeforeInvalidationTest() {
+        long generation = cache.generation();
+        cache.invalidate(null, new ItemSearchEntry(1, "Drill", "", true, null));
+        cache.put("drill", 0, 10, List.of(), generation);
+        assertNull(cache.get("drill", 0, 10));
+    }
+
+    @Test
+    void invalidateShouldEvictOnlyMatchingTextsTest() {
+        cache.put("drill", 0, 10, List.of(1), cache.generation());
+        cache.put("drill", 10, 10, List.of(), cache.generation());
+        cache.put("cordless dril", 0, 10, List.of(1), cache.generation());
+        cache.put("tent", 0, 10, List.of(2), cache.generation());
+        cache.put("en", 0, 10, List.of(1, 2), cache.generation());
+        cache.invalidate(new ItemSearchEntry(3, "Ladder", "", false, null), new ItemSearchEntry(3, "Ladder", "", false, null));
+        assertEquals(5, cache.getSize());
+        cache.invalidate(null, new ItemSearchEntry(4, "Drill", "Cordless drill", true, null));
+        assertNull(cache.get("drill", 0, 10));
+        assertNull(cache.get("drill", 10, 10));
+        assertNull(cache.get("cordless dril", 0, 10));
+        assertEquals(List.of(1, 2), cache.get("en", 0, 10));
+        assertEquals(List.of(2), cache.get("tent", 0, 10));
+        cache.invalidate(new ItemSearchEntry(2, "Tent", "", true, null), new ItemSearchEntry(2, "Tent", "", false, null));
+        assertNull(cache.get("en", 0, 10));
+        assertNull(cache.get("tent", 0, 10));
+        assertEquals(5, cache.getInvalidations());
+    }
+}
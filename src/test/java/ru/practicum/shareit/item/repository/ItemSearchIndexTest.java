@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchEntry;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemSearchProperties itemSearchProperties = new ItemSearchProperties();
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository, itemSearchProperties);
+
+    private final List<ItemSearchEntry> rows = List.of(
+            new ItemSearchEntry(1, "Дрель", "Простая дрель", true, null),
+            new ItemSearchEntry(2, "Отвертка", "Аккумуляторная ОТВЕРТКА", true, 7),
+            new ItemSearchEntry(3, "Дрель ударная", "Сломана", false, null),
+            new ItemSearchEntry(4, "Клей", "Клей для дерева и дрели", true, null)
+    );
+
+    @BeforeEach
+    void beforeEach() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.INDEX);
+        when(itemRepository.streamSearchEntries()).thenAnswer(invocation -> rows.stream());
+    }
+
+    @Test
+    void buildShouldSkipOtherModesTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.LIKE);
+        index.build();
+        assertFalse(index.isLoaded());
+    }
+
+    @Test
+    void searchShouldMatchSubstringsOfAvailableItemsTest() {
+        index.build();
+        assertTrue(index.isLoaded());
+        assertEquals(List.of(1, 4), ids(index.search("дРел", 0, 10)));
+        assertEquals(List.of(2), ids(index.search("тверт", 0, 10)));
+        assertEquals(List.of(1, 2, 4), ids(index.search("р", 0, 10)));
+        assertEquals(List.of(), ids(index.search("пила", 0, 10)));
+        assertEquals(Integer.valueOf(7), index.search("отвертка", 0, 10).get(0).getRequestId());
+    }
+
+    @Test
+    void searchShouldPageResultsTest() {
+        index.build();
+        assertEquals(List.of(4), ids(index.search("дрел", 1, 1)));
+        assertEquals(List.of(), ids(index.search("дрел", 2, 1)));
+    }
+
+    @Test
+    void searchSimilarShouldTolerateTyposTest() {
+        index.build();
+        index.update(new Item(5, "Drill", "Cordless drill", true, null, null, null));
+        index.update(new Item(6, "Dryer", "Hair dryer", true, null, null, null));
+        assertEquals(List.of(1, 4), ids(index.searchSimilar("дрелъ", 0.5, 0, 10)));
+        assertEquals(List.of(5, 6), ids(index.searchSimilar("drlil", 0.3, 0, 10)));
+        assertEquals(List.of(5), ids(index.searchSimilar("drlil", 0.3, 0, 1)));
+        assertEquals(List.of(6), ids(index.searchSimilar("drlil", 0.3, 1, 1)));
+        assertEquals(List.of(), ids(index.searchSimilar("drlil", 0.5, 0, 10)));
+        assertEquals(List.of(), ids(index.searchSimilar("--", 0.3, 0, 10)));
+    }
+
+    @Test
+    void updateShouldReindexChangedItemTest() {
+        index.build();
+        index.update(new Item(3, "Дрель ударная", "Починена", true, null, null, null));
+        assertEquals(List.of(1, 3, 4), ids(index.search("дрел", 0, 10)));
+        index.update(new Item(1, "Перфоратор", "Простой", false, null, null, null));
+        assertEquals(List.of(3, 4), ids(index.search("дрел", 0, 10)));
+        index.update(new Item(5, "Дрель", null, true, null, null, null));
+        assertEquals(List.of(3, 4, 5), ids(index.search("дрел", 0, 10)));
+    }
+
+    @Test
+    void buildShouldReplayUpdatesCommittedDuringTableReadTest() {
+        when(itemRepository.streamSearchEntries()).thenAnswer(invocation -> {
+            index.update(new Item(1, "Дрель", "Простая дрель", false, null, null, null));
+            index.update(new Item(9, "Дрель", "", true, null, null, null));
+            return rows.stream();
+        });
+        index.build();
+        assertEquals(List.of(4, 9), ids(index.search("дрел", 0, 10)));
+    }
+
+    @Test
+    void updateBeforeBuildShouldNotBeQueuedTest() {
+        index.update(new Item(9, "Дрель", "", true, null, null, null));
+        index.build();
+        assertEquals(List.of(1, 4), ids(index.search("дрел", 0, 10)));
+    }
+
+    @Test
+    void reconcileShouldRepairDriftedEntriesTest() {
+        index.build();
+        index.update(new Item(1, "Пила", "", true, null, null, null));
+        index.update(new Item(9, "Дрель", "", true, null, null, null));
+        assertEquals(2, index.reconcile());
+        assertEquals(List.of(1, 4), ids(index.search("дрел", 0, 10)));
+        assertEquals(0, index.reconcile());
+    }
+
+    @Test
+    void reconcileShouldKeepUpdatesCommittedDuringTableReadTest() {
+        index.build();
+        when(itemRepository.streamSearchEntries()).thenAnswer(invocation -> {
+            index.update(new Item(1, "Пила", "", true, null, null, null));
+            index.update(new Item(9, "Дрель", "", true, null, null, null));
+            return rows.stream();
+        });
+        assertEquals(0, index.reconcile());
+        assertEquals(List.of(1), ids(index.search("пил", 0, 10)));
+        assertEquals(List.of(4, 9), ids(index.search("дрел", 0, 10)));
+    }
+
+    private List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
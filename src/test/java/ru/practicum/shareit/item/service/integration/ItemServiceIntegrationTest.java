@@ -65,7 +65,7 @@ public class ItemServiceIntegrationTest {
         Map<Integer, Booking> nextBookings = new HashMap<>();
         Map<Integer, Comment> comments = new HashMap<>();
         itemsMap.keySet().forEach(itemId -> {
-            Booking lastBooking = new Booking(null, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1), itemsMap.get(itemId), booker, Status.APPROVED);
+            Booking lastBooking = new Booking(null, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), itemsMap.get(itemId), booker, Status.APPROVED);
             Booking nextBooking = new Booking(null, LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusDays(1), itemsMap.get(itemId), booker, Status.APPROVED);
             Comment comment = generator.nextObject(Comment.class);
             comment.setId(null);
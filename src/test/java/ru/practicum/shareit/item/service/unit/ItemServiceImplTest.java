@@ -3,17 +3,31 @@ package ru.practicum.shareit.item.service.unit;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
+import ru.practicum.shareit.item.config.ItemSearchProperties;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.event.model.UserEvent;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentRank;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemAvailability;
 import ru.practicum.shareit.item.model.ItemBookingInfo;
+import ru.practicum.shareit.item.model.TimeSlot;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemNameSuggestions;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchCache;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMatchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -23,14 +37,19 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ItemServiceImplTest {
@@ -40,7 +59,14 @@ public class ItemServiceImplTest {
     private final CommentRepository commentRepository = mock(CommentRepository.class);
     private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
 
-    private final ItemService itemService = new ItemServiceImpl(userRepository, itemRepository, bookingRepository, commentRepository, itemRequestRepository);
+    private final ItemSearchProperties itemSearchProperties = new ItemSearchProperties();
+    private final ItemSearchIndex itemSearchIndex = mock(ItemSearchIndex.class);
+    private final ItemNameSuggestions itemNameSuggestions = mock(ItemNameSuggestions.class);
+    private final ItemSearchCache itemSearchCache = new ItemSearchCache(itemSearchProperties);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ItemService itemService = new ItemServiceImpl(userRepository, itemRepository, bookingRepository, commentRepository, itemRequestRepository,
+            new ItemBookingPointers(bookingRepository, 300000, 10000), itemSearchProperties, itemSearchIndex,
+            itemNameSuggestions, itemSearchCache, mock(ItemRequestMatchIndex.class), eventPublisher);
 
     private final EasyRandom generator = new EasyRandom();
 
@@ -54,12 +80,17 @@ public class ItemServiceImplTest {
 
     @Test
     void addItem() {
-        when(itemRequestRepository.findById(anyInt())).thenReturn(Optional.of(generator.nextObject(ItemRequest.class)));
+        ItemRequest itemRequest = generator.nextObject(ItemRequest.class);
+        when(itemRequestRepository.findById(anyInt())).thenReturn(Optional.of(itemRequest));
         Item item = generator.nextObject(Item.class);
         item.setRequestId(generator.nextInt());
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         Item addedItem = itemService.addItem(item, user.getId());
         assertEquals(item, addedItem);
+        verify(itemSearchIndex).update(item);
+        verify(itemNameSuggestions).update(item);
+        verify(eventPublisher).publishEvent(UserEvent.requestItemAdded(
+                itemRequest.getRequestor().getId(), itemRequest.getId(), item.getId()));
     }
 
     @Test
@@ -70,6 +101,8 @@ public class ItemServiceImplTest {
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         Item updatedItem = itemService.updateItem(item, user.getId());
         assertEquals(item, updatedItem);
+        verify(itemSearchIndex).update(item);
+        verify(itemNameSuggestions).update(item);
     }
 
     @Test
@@ -78,16 +111,22 @@ public class ItemServiceImplTest {
         item.setOwner(user);
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
         List<Comment> comments = generator.objects(Comment.class, 10).collect(Collectors.toList());
-        when(commentRepository.findAllByItemId(anyInt())).thenReturn(comments);
+        comments.forEach(c -> c.setItem(item));
+        when(commentRepository.findLatestByItemIdIn(List.of(item.getId()), 10))
+                .thenReturn(comments.stream().map(c -> rank(c.getId(), item.getId(), 25)).collect(Collectors.toList()));
+        when(commentRepository.findAllByIdInOrderByIdDesc(anyList())).thenReturn(comments);
         Booking lastBooking = generator.nextObject(Booking.class);
+        lastBooking.setItem(item);
         when(bookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList())).thenReturn(List.of(lastBooking));
         Booking nextBooking = generator.nextObject(Booking.class);
+        nextBooking.setItem(item);
         when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList())).thenReturn(List.of(nextBooking));
         ItemBookingInfo itemBookingInfo = itemService.getItemByIdAndUserId(item.getId(), user.getId());
         assertEquals(item, itemBookingInfo.getItem());
         assertEquals(lastBooking, itemBookingInfo.getLastBooking());
         assertEquals(nextBooking, itemBookingInfo.getNextBooking());
         assertEquals(comments, itemBookingInfo.getComments());
+        assertEquals(25, itemBookingInfo.getCommentCount());
     }
 
     @Test
@@ -104,10 +143,15 @@ public class ItemServiceImplTest {
         when(bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(anyList(), anyInt(), any(LocalDateTime.class), anyList())).thenReturn(nextBookings);
         List<Comment> comments = generator.objects(Comment.class, 20).collect(Collectors.toList());
         comments.forEach(c -> c.setItem(items.get(0)));
-        when(commentRepository.findAllByItemIdInOrderByIdAsc(anyList())).thenReturn(comments);
+        when(commentRepository.findLatestByItemIdIn(anyList(), anyInt()))
+                .thenReturn(comments.stream().map(c -> rank(c.getId(), itemId, 40)).collect(Collectors.toList()));
+        when(commentRepository.findAllByIdInOrderByIdDesc(anyList())).thenReturn(comments);
         List<ItemBookingInfo> itemBookingInfos = itemService.getOwnerItems(user.getId(), 0, 20);
         ItemBookingInfo itemInfo = itemBookingInfos.stream().filter(i -> i.getItem().getId() == itemId).findFirst().get();
         assertEquals(comments, itemInfo.getComments());
+        assertEquals(40, itemInfo.getCommentCount());
+        assertEquals(0, itemBookingInfos.get(1).getCommentCount());
+        assertEquals(List.of(), itemBookingInfos.get(1).getComments());
         assertEquals(lastBookings.stream().findFirst().get(), itemInfo.getLastBooking());
         assertEquals(nextBookings.stream().findFirst().get(), itemInfo.getNextBooking());
     }
@@ -126,6 +170,97 @@ public class ItemServiceImplTest {
         assertEquals(items, foundItems);
     }
 
+    @Test
+    void searchAvailableItemsShouldUseFullTextWhenConfiguredTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.FULL_TEXT);
+        List<Item> items = generator.objects(Item.class, 3).collect(Collectors.toList());
+        when(itemRepository.searchAvailableFullText(anyString(), any(Pageable.class))).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drill", 0, 10));
+        verify(itemRepository, never()).searchAvailable(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchAvailableItemsShouldUseIndexOnceLoadedTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.INDEX);
+        List<Item> items = generator.objects(Item.class, 3).collect(Collectors.toList());
+        when(itemSearchIndex.search("drill", 10, 10)).thenReturn(items);
+        when(itemRepository.searchAvailable(anyString(), any(Pageable.class))).thenReturn(List.of());
+        assertEquals(List.of(), itemService.searchAvailableItems("drill", 15, 10));
+        when(itemSearchIndex.isLoaded()).thenReturn(true);
+        assertEquals(items, itemService.searchAvailableItems("drill", 15, 10));
+    }
+
+    @Test
+    void searchAvailableItemsShouldPageSimilarItemsFromIndexTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.INDEX);
+        itemSearchProperties.setFuzzy(true);
+        List<Item> items = generator.objects(Item.class, 5).collect(Collectors.toList());
+        when(itemSearchIndex.isLoaded()).thenReturn(true);
+        when(itemSearchIndex.searchSimilar("drlil", 0.3, 20, 10)).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drlil", 20, 10));
+        when(itemSearchIndex.searchSimilar("drlil", 0.3, 90, 10)).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drlil", 90, 10));
+    }
+
+    @Test
+    void searchAvailableItemsShouldLimitSimilarItemsTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.FULL_TEXT);
+        itemSearchProperties.setFuzzy(true);
+        itemSearchProperties.setFuzzyLimit(15);
+        List<Item> items = generator.objects(Item.class, 10).collect(Collectors.toList());
+        when(itemRepository.searchAvailableSimilar("drlil", PageRequest.of(1, 10))).thenReturn(items);
+        assertEquals(items.subList(0, 5), itemService.searchAvailableItems("drlil", 10, 10));
+        assertEquals(List.of(), itemService.searchAvailableItems("drlil", 20, 10));
+        verify(itemRepository, times(1)).searchAvailableSimilar(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchAvailableItemsShouldRankSimilarItemsWithTrigramIndexTest() {
+        itemSearchProperties.setMode(ItemSearchProperties.Mode.FULL_TEXT);
+        itemSearchProperties.setFuzzy(true);
+        List<Item> items = generator.objects(Item.class, 3).collect(Collectors.toList());
+        when(itemRepository.searchAvailableSimilar("drlil", PageRequest.of(6, 10))).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drlil", 60, 10));
+        verify(itemRepository).setWordSimilarityThreshold("0.3");
+        verify(itemRepository, never()).searchAvailableFullText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchAvailableItemsShouldServeCachedIdsTest() {
+        List<Item> items = generator.objects(Item.class, 3).collect(Collectors.toList());
+        itemSearchCache.put("drill", 10, 10, List.of(items.get(2).getId(), items.get(0).getId()), itemSearchCache.generation());
+        when(itemRepository.findAllById(anyList())).thenReturn(List.of(items.get(0), items.get(2)));
+        assertEquals(List.of(items.get(2), items.get(0)), itemService.searchAvailableItems("drill", 10, 10));
+        verify(itemRepository, never()).searchAvailable(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchAvailableItemsShouldCacheFoundIdsTest() {
+        List<Item> items = generator.objects(Item.class, 2).collect(Collectors.toList());
+        when(itemRepository.searchAvailable(anyString(), any(Pageable.class))).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drill", 0, 10));
+        assertEquals(List.of(items.get(0).getId(), items.get(1).getId()), itemSearchCache.get("drill", 0, 10));
+    }
+
+    @Test
+    void suggestItemNamesTest() {
+        when(itemNameSuggestions.suggest("дре", 5)).thenReturn(List.of("Дрель"));
+        assertEquals(List.of("Дрель"), itemService.suggestItemNames("дре", 5));
+        assertEquals(List.of(), itemService.suggestItemNames(" ", 5));
+        assertThrows(IllegalArgumentException.class, () -> itemService.suggestItemNames("дре", 0));
+    }
+
+    @Test
+    void getCommentsTest() {
+        List<Comment> comments = generator.objects(Comment.class, 3).collect(Collectors.toList());
+        when(itemRepository.existsById(1)).thenReturn(true);
+        when(commentRepository.findByItemIdOrderByIdDesc(1, PageRequest.of(0, 3))).thenReturn(comments);
+        when(commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(1, 50, PageRequest.of(0, 3))).thenReturn(comments.subList(0, 1));
+        assertEquals(comments, itemService.getComments(1, null, 3));
+        assertEquals(comments.subList(0, 1), itemService.getComments(1, 50, 3));
+        assertThrows(ItemNotFoundException.class, () -> itemService.getComments(2, null, 3));
+        assertThrows(IllegalArgumentException.class, () -> itemService.getComments(1, null, 0));
+    }
 
     @Test
     void addCommentTest() {
@@ -142,4 +277,79 @@ public class ItemServiceImplTest {
         List<Item> foundItems = itemService.searchAvailableItems("unknown ", 0, 5);
         assertTrue(foundItems.isEmpty());
     }
+
+    @Test
+    void getItemAvailabilityShouldMergeBusyIntervalsAndReturnGapsTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusHours(10);
+        when(itemRepository.existsById(anyInt())).thenReturn(true);
+        when(bookingRepository.streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(anyInt(), any(), any(), anyList()))
+                .thenReturn(Stream.of(
+                        new BookingInterval(1, 1, from.minusHours(1), from.plusHours(1)),
+                        new BookingInterval(2, 1, from.plusHours(3), from.plusHours(5)),
+                        new BookingInterval(3, 1, from.plusHours(4), from.plusHours(6)),
+                        new BookingInterval(4, 1, from.plusHours(6), from.plusHours(7)),
+                        new BookingInterval(5, 1, from.plusHours(9), from.plusHours(12))
+                ));
+
+        ItemAvailability availability = itemService.getItemAvailability(1, from, to);
+
+        assertEquals(List.of(
+                new TimeSlot(from, from.plusHours(1)),
+                new TimeSlot(from.plusHours(3), from.plusHours(7)),
+                new TimeSlot(from.plusHours(9), to)
+        ), availability.getBusy());
+        assertEquals(List.of(
+                new TimeSlot(from.plusHours(1), from.plusHours(3)),
+                new TimeSlot(from.plusHours(7), from.plusHours(9))
+        ), availability.getFree());
+    }
+
+    @Test
+    void getItemAvailabilityWithoutBookingsTest() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(anyInt())).thenReturn(true);
+        when(bookingRepository.streamIntervalsByItemIdAndStartIsBeforeAndEndIsAfterAndStatusIn(anyInt(), any(), any(), anyList()))
+                .thenReturn(Stream.empty());
+        ItemAvailability availability = itemService.getItemAvailability(1, from, from.plusDays(1));
+        assertTrue(availability.getBusy().isEmpty());
+        assertEquals(List.of(new TimeSlot(from, from.plusDays(1))), availability.getFree());
+        assertThrows(IllegalArgumentException.class, () -> itemService.getItemAvailability(1, from, from));
+    }
+
+    @Test
+    void shouldThrowItemNotFoundExceptionWhenGetAvailabilityOfUnknownItemTest() {
+        when(itemRepository.existsById(anyInt())).thenReturn(false);
+        assertThrows(ItemNotFoundException.class,
+                () -> itemService.getItemAvailability(1, LocalDateTime.now(), LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void searchAvailableItemsInWindowTest() {
+        List<Item> items = generator.objects(Item.class, 2).collect(Collectors.toList());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemRepository.searchAvailableWithoutBookingsBetween(anyString(), any(), any(), anyList(), any(Pageable.class))).thenReturn(items);
+        assertEquals(items, itemService.searchAvailableItems("drill", start, start.plusDays(1), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchAvailableItems("drill", start, null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchAvailableItems("drill", start, start, 0, 10));
+    }
+
+    private CommentRank rank(int id, int itemId, long total) {
+        return new CommentRank() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
 }
@@ -8,13 +8,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestCursorMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.Comparator;
@@ -24,9 +29,12 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -106,9 +114,11 @@ public class ItemRequestControllerTest {
 
     @Test
     void getAllRequestsTest() throws Exception {
-        when(itemRequestService.getAllRequests(anyInt(), anyInt(), anyInt())).thenReturn(List.of(itemRequest));
-        MvcResult result = mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", 1))
+        when(itemRequestService.getAllRequests(anyInt(), isNull(), anyInt(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(itemRequest), PageRequest.of(0, 1), true));
+        MvcResult result = mockMvc.perform(get("/requests/all?size=1").header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(PagingHeaders.NEXT_CURSOR, ItemRequestCursorMapper.toToken(itemRequest)))
                 .andReturn();
         ItemRequestDto response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<List<ItemRequestDto>>() {
         }).get(0);
@@ -118,4 +128,34 @@ public class ItemRequestControllerTest {
                 itemRequest.getItems().stream().map(Item::getId).sorted(Comparator.comparingInt(i -> i)).collect(Collectors.toList()),
                 response.getItems().stream().map(ItemDto::getId).sorted(Comparator.comparingInt(i -> i)).collect(Collectors.toList()));
     }
+
+    @Test
+    void getAllRequestsAfterCursorTest() throws Exception {
+        String after = ItemRequestCursorMapper.toToken(itemRequest);
+        when(itemRequestService.getAllRequests(1, ItemRequestCursorMapper.toItemRequestCursor(after), 0, 10))
+                .thenReturn(new SliceImpl<>(List.of()));
+        mockMvc.perform(get("/requests/all").param("after", after).header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PagingHeaders.NEXT_CURSOR))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getAllRequestsWithInvalidCursorTest() throws Exception {
+        mockMvc.perform(get("/requests/all").param("after", "not a cursor").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getMatchesTest() throws Exception {
+        ItemRequestMatch match = generator.nextObject(ItemRequestMatch.class);
+        when(itemRequestService.getMatches(1, 0, 10)).thenReturn(List.of(match));
+        mockMvc.perform(get("/requests/matches").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].requestId").value(match.getRequestId()))
+                .andExpect(jsonPath("$[0].item.id").value(match.getItemId()))
+                .andExpect(jsonPath("$[0].item.name").value(match.getItemName()))
+                .andExpect(jsonPath("$[0].sharedWords").value(match.getSharedWords()));
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestCursor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ItemRequestCursorMapperTest {
+    @Test
+    void tokenShouldRoundTripTest() {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(42);
+        itemRequest.setCreated(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 600_000));
+        ItemRequestCursor cursor = ItemRequestCursorMapper.toItemRequestCursor(ItemRequestCursorMapper.toToken(itemRequest));
+        assertEquals(new ItemRequestCursor(itemRequest.getCreated(), itemRequest.getId()), cursor);
+    }
+
+    @Test
+    void nullValuesTest() {
+        assertNull(ItemRequestCursorMapper.toToken(null));
+        assertNull(ItemRequestCursorMapper.toItemRequestCursor(null));
+    }
+
+    @Test
+    void invalidTokenShouldThrowIllegalArgumentExceptionTest() {
+        assertThrows(IllegalArgumentException.class, () -> ItemRequestCursorMapper.toItemRequestCursor("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ItemRequestCursorMapper.toItemRequestCursor("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> ItemRequestCursorMapper.toItemRequestCursor("eHx5"));
+    }
+}
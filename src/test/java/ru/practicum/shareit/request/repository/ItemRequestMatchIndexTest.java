@@ -0,0 +1,114 @@
+package ru.practicum.shareit.request.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.model.OpenItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemRequestMatchIndexTest {
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemRequestMatchIndex index = new ItemRequestMatchIndex(itemRequestRepository, 2);
+
+    @BeforeEach
+    void beforeEach() {
+        when(itemRequestRepository.streamOpenRequests()).thenAnswer(invocation -> List.of(
+                new OpenItemRequest(1, 10, "Нужна дрель для ремонта"),
+                new OpenItemRequest(2, 20, "Ищу дрели и перфоратор"),
+                new OpenItemRequest(3, 30, "Хочу взять палатку в поход")
+        ).stream());
+        index.build();
+    }
+
+    @Test
+    void wordsShouldBeStemmedAndSkipShortWordsTest() {
+        assertEquals(Set.of("ДРЕЛ"), ItemRequestMatchIndex.words("дрель для, ДРЕЛИ и", null));
+        assertEquals(Set.of("ПАЛА", "ПОХО"), ItemRequestMatchIndex.words("Палатка: поход!"));
+        assertEquals(Set.of(), ItemRequestMatchIndex.words("лист лиса"));
+    }
+
+    @Test
+    void wordWithSamePrefixShouldNotMatchTest() {
+        User requestor = new User();
+        requestor.setId(40);
+        index.add(new ItemRequest(4, "Лист фанеры", requestor, LocalDateTime.now(), null));
+        index.match(item(5, "Лиса", "Мягкая игрушка", true, 10, null));
+        assertEquals(List.of(), index.getMatches(40, 0, 10));
+    }
+
+    @Test
+    void matchesShouldBeKeptForBoundedNumberOfRequestorsTest() {
+        index.match(item(5, "Дрель", "Для ремонта", true, 40, null));
+        index.match(item(6, "Палатка", "", true, 40, null));
+        index.getMatches(10, 0, 10);
+        index.match(item(7, "Перфоратор", "", true, 40, null));
+        assertEquals(1, index.getMatches(10, 0, 10).size());
+        assertEquals(List.of(), index.getMatches(30, 0, 10));
+        assertEquals(1, index.getMatches(20, 0, 10).size());
+    }
+
+    @Test
+    void matchShouldRecordMatchesForOtherRequestorsTest() {
+        index.match(item(5, "Дрель", "Ударная, для ремонта", true, 20, null));
+        List<ItemRequestMatch> matches = index.getMatches(10, 0, 10);
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getRequestId());
+        assertEquals(5, matches.get(0).getItemId());
+        assertEquals(2, matches.get(0).getSharedWords());
+        assertEquals(List.of(), index.getMatches(20, 0, 10));
+        assertEquals(List.of(), index.getMatches(30, 0, 10));
+    }
+
+    @Test
+    void unavailableItemShouldNotMatchTest() {
+        index.match(item(5, "Палатка", "", false, 10, null));
+        assertEquals(List.of(), index.getMatches(30, 0, 10));
+    }
+
+    @Test
+    void answeredRequestShouldBeClosedTest() {
+        index.match(item(5, "Палатка", "Двухместная", true, 10, 3));
+        assertEquals(List.of(), index.getMatches(30, 0, 10));
+        index.match(item(6, "Палатка", "Трехместная", true, 20, null));
+        assertEquals(List.of(), index.getMatches(30, 0, 10));
+    }
+
+    @Test
+    void addedRequestShouldBeMatchedTest() {
+        User requestor = new User();
+        requestor.setId(40);
+        index.add(new ItemRequest(4, "Нужен велосипед", requestor, LocalDateTime.now(), null));
+        index.match(item(5, "Велосипед", "Горный", true, 10, null));
+        assertEquals(List.of(4), index.getMatches(40, 0, 10).stream()
+                .map(ItemRequestMatch::getRequestId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void matchesShouldBeNewestFirstAndBoundedTest() {
+        IntStream.rangeClosed(1, ItemRequestMatchIndex.MAX_MATCHES_PER_REQUESTOR + 5)
+                .forEach(id -> index.match(item(id, "Палатка " + id, "", true, 10, null)));
+        List<ItemRequestMatch> matches = index.getMatches(30, 0, ItemRequestMatchIndex.MAX_MATCHES_PER_REQUESTOR * 2);
+        assertEquals(ItemRequestMatchIndex.MAX_MATCHES_PER_REQUESTOR, matches.size());
+        assertEquals(ItemRequestMatchIndex.MAX_MATCHES_PER_REQUESTOR + 5, matches.get(0).getItemId());
+        assertEquals(List.of(103, 102), index.getMatches(30, 2, 2).stream()
+                .map(ItemRequestMatch::getItemId).collect(Collectors.toList()));
+    }
+
+    private static Item item(int id, String name, String description, boolean available, int ownerId, Integer requestId) {
+        User owner = new User();
+        owner.setId(ownerId);
+        return new Item(id, name, description, available, owner, requestId, null);
+    }
+}
@@ -3,32 +3,40 @@ package ru.practicum.shareit.request.service.unit;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestCursor;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestMatchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ItemRequestServiceImplTest {
     private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
     private final UserRepository userRepository = mock(UserRepository.class);
+    private final ItemRequestMatchIndex itemRequestMatchIndex = mock(ItemRequestMatchIndex.class);
 
     private final ItemRequestService itemRequestService = new ItemRequestServiceImpl(
-            userRepository, itemRequestRepository
+            userRepository, itemRequestRepository, itemRequestMatchIndex
     );
 
     private final EasyRandom generator = new EasyRandom();
@@ -47,6 +55,7 @@ public class ItemRequestServiceImplTest {
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
         ItemRequest addedItemRequest = itemRequestService.addRequest(itemRequest, user.getId());
         assertEquals(itemRequest, addedItemRequest);
+        verify(itemRequestMatchIndex).add(itemRequest);
     }
 
     @Test
@@ -67,9 +76,39 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequestsTest() {
-        Page<ItemRequest> itemRequests = new PageImpl<>(generator.objects(ItemRequest.class, 20).collect(Collectors.toList()));
-        when(itemRequestRepository.findByRequestorIdNot(anyInt(), any(Pageable.class))).thenReturn(itemRequests);
-        List<ItemRequest> foundItemRequest = itemRequestService.getAllRequests(user.getId(), 0, 20);
-        assertEquals(itemRequests.getContent(), foundItemRequest);
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(generator.objects(ItemRequest.class, 20).collect(Collectors.toList()));
+        when(itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(anyInt(), any(Pageable.class))).thenReturn(itemRequests);
+        Slice<ItemRequest> foundItemRequests = itemRequestService.getAllRequests(user.getId(), null, 40, 20);
+        assertEquals(itemRequests, foundItemRequests);
+        verify(itemRequestRepository).findByRequestorIdNotOrderByCreatedDescIdDesc(user.getId(), PageRequest.of(2, 20));
+    }
+
+    @Test
+    void getAllRequestsAfterCursorTest() {
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(generator.objects(ItemRequest.class, 20).collect(Collectors.toList()));
+        ItemRequestCursor cursor = new ItemRequestCursor(LocalDateTime.now(), 7);
+        when(itemRequestRepository.findByRequestorIdNotAfter(anyInt(), any(LocalDateTime.class), anyInt(), any(Pageable.class)))
+                .thenReturn(itemRequests);
+        Slice<ItemRequest> foundItemRequests = itemRequestService.getAllRequests(user.getId(), cursor, 40, 20);
+        assertEquals(itemRequests, foundItemRequests);
+        verify(itemRequestRepository).findByRequestorIdNotAfter(user.getId(), cursor.getCreated(), 7, PageRequest.of(0, 20));
+    }
+
+    @Test
+    void getAllRequestsWithWrongSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> itemRequestService.getAllRequests(user.getId(), null, 0, 0));
+    }
+
+    @Test
+    void getMatchesTest() {
+        List<ItemRequestMatch> matches = generator.objects(ItemRequestMatch.class, 5).collect(Collectors.toList());
+        when(itemRequestMatchIndex.getMatches(user.getId(), 5, 5)).thenReturn(matches);
+        assertEquals(matches, itemRequestService.getMatches(user.getId(), 5, 5));
+    }
+
+    @Test
+    void getMatchesWithWrongPageTest() {
+        assertThrows(IllegalArgumentException.class, () -> itemRequestService.getMatches(user.getId(), -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> itemRequestService.getMatches(user.getId(), 0, 0));
     }
 }
@@ -8,25 +8,38 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.PagingHeaders;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -102,9 +115,16 @@ public class UserControllerTest {
     }
 
     @Test
-    void getAllUsersTest() throws Exception {
-        when(userService.getAllUsers()).thenReturn(List.of(user));
-        MvcResult result = mockMvc.perform(get("/users")).andExpect(status().isOk()).andReturn();
+    void getUsersTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(user);
+            return null;
+        }).when(userService).exportUsers(any());
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PagingHeaders.NEXT_CURSOR))
+                .andReturn();
         List<UserDto> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
         });
         assertEquals(user.getId(), response.get(0).getId());
@@ -112,6 +132,48 @@ public class UserControllerTest {
         assertEquals(user.getEmail(), response.get(0).getEmail());
     }
 
+    @Test
+    void getUsersPageWithDefaultSizeTest() throws Exception {
+        when(userService.getUsers(5, 100)).thenReturn(new SliceImpl<>(List.of(user)));
+        mockMvc.perform(get("/users").param("after", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PagingHeaders.NEXT_CURSOR))
+                .andExpect(jsonPath("$[0].id").value(user.getId()));
+        verify(userService, never()).exportUsers(any());
+    }
+
+    @Test
+    void getUsersAfterIdTest() throws Exception {
+        when(userService.getUsers(5, 1)).thenReturn(new SliceImpl<>(List.of(user), PageRequest.of(0, 1), true));
+        mockMvc.perform(get("/users").param("after", "5").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PagingHeaders.NEXT_CURSOR, String.valueOf(user.getId())))
+                .andExpect(jsonPath("$[0].id").value(user.getId()));
+    }
+
+    @Test
+    void exportUsersTest() throws Exception {
+        User other = generator.nextObject(User.class);
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(user);
+            consumer.accept(other);
+            return null;
+        }).when(userService).exportUsers(any());
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofHours(1).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(user.getId(), objectMapper.readValue(lines[0], UserDto.class).getId());
+        assertEquals(other.getEmail(), objectMapper.readValue(lines[1], UserDto.class).getEmail());
+    }
+
     @Test
     void deleteUserTest() throws Exception {
         doNothing().when(userService).deleteUser(anyInt());
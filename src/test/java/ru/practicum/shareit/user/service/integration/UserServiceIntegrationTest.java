@@ -7,13 +7,21 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @SpringBootTest
 @Transactional
 public class UserServiceIntegrationTest {
     @Autowired
     UserService userService;
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void updateUserTest() {
@@ -26,4 +34,16 @@ public class UserServiceIntegrationTest {
         assertEquals(user.getName(), updatedUser.getName());
         assertEquals(user.getEmail(), updatedUser.getEmail());
     }
+
+    @Test
+    void exportUsersTest() {
+        List<User> users = List.of(
+                userService.addUser(new User(null, "first", "first@email.ru")),
+                userService.addUser(new User(null, "second", "second@email.ru"))
+        );
+        List<Integer> exportedIds = new ArrayList<>();
+        userService.exportUsers(user -> exportedIds.add(user.getId()));
+        assertEquals(users.stream().map(User::getId).collect(Collectors.toList()), exportedIds);
+        users.forEach(user -> assertFalse(entityManager.contains(user)));
+    }
 }
@@ -2,12 +2,18 @@ package ru.practicum.shareit.user.service.unit;
 
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.repository.ItemBookingPointers;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,11 +25,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class UserServiceImplTest {
     private final UserRepository userRepository = mock(UserRepository.class);
-    private final UserService userService = new UserServiceImpl(userRepository);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ItemBookingPointers itemBookingPointers = mock(ItemBookingPointers.class);
+    private final UserService userService = new UserServiceImpl(userRepository, entityManager, itemBookingPointers);
     private final EasyRandom generator = new EasyRandom();
 
     @Test
@@ -41,14 +50,28 @@ public class UserServiceImplTest {
         when(userRepository.save(any(User.class))).thenReturn(userForUpdate);
         User updatedUser = userService.updateUser(generator.nextObject(User.class));
         assertEquals(userForUpdate, updatedUser);
+        verify(itemBookingPointers).evictBooker(userForUpdate.getId());
     }
 
     @Test
-    void getAllUsersTest() {
-        List<User> users = generator.objects(User.class, 2).collect(Collectors.toList());
-        when(userRepository.findAll()).thenReturn(users);
-        List<User> foundUsers = userService.getAllUsers();
-        assertEquals(users, foundUsers);
+    void getUsersTest() {
+        Slice<User> users = new SliceImpl<>(generator.objects(User.class, 2).collect(Collectors.toList()));
+        when(userRepository.findAllByOrderById(PageRequest.of(0, 2))).thenReturn(users);
+        when(userRepository.findByIdGreaterThanOrderById(5, PageRequest.of(0, 2))).thenReturn(users);
+        assertEquals(users, userService.getUsers(null, 2));
+        assertEquals(users, userService.getUsers(5, 2));
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, 1001));
+    }
+
+    @Test
+    void exportUsersShouldDetachEveryUserTest() {
+        List<User> users = generator.objects(User.class, 3).collect(Collectors.toList());
+        when(userRepository.streamAll()).thenReturn(users.stream());
+        List<User> exported = new ArrayList<>();
+        userService.exportUsers(exported::add);
+        assertEquals(users, exported);
+        users.forEach(user -> verify(entityManager).detach(user));
     }
 
     @Test